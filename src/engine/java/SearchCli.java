@@ -0,0 +1,110 @@
+import app.model.Post;
+import app.search.PostJson;
+import app.search.SearchEngine;
+import app.search.SearchRequest;
+import app.search.SearchSession;
+import app.server.SearchServer;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a search without the UI and prints the results as JSON lines, one post per line,
+ * in ranking order. Log output and per-backend status go to stderr so stdout can be piped.
+ *
+ * Usage: SearchCli [--bluesky] [--mastodon] [--federated] [--sort latest|top] [--pages N] query...
+ *        SearchCli --serve [--port N]
+ *
+ * Tokens come from the environment: BSKY_ACCESS_TOKEN, MASTODON_INSTANCE and
+ * MASTODON_ACCESS_TOKEN. Without platform flags every platform with a token is searched,
+ * or public Mastodon instances when there is none (searchapp.mastodon.instances, else a
+ * built-in list). Exits with status 1 when no platform can be searched.
+ *
+ * With --serve it instead runs a {@link SearchServer} on 127.0.0.1 (default port 8787)
+ * until the process is stopped; clients need the access token it prints at start.
+ */
+public class SearchCli {
+
+    private static final int DEFAULT_PORT = 8787;
+
+    public static void main(String[] args) throws Exception {
+        PrintStream out = new PrintStream(System.out, true, StandardCharsets.UTF_8);
+        System.setOut(System.err);
+
+        boolean bluesky = false, mastodon = false, federated = false;
+        String sort = null;
+        int pages = 1;
+        boolean serve = false;
+        int port = DEFAULT_PORT;
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--bluesky" -> bluesky = true;
+                case "--mastodon" -> mastodon = true;
+                case "--federated" -> federated = true;
+                case "--sort" -> sort = value(args, ++i);
+                case "--pages" -> pages = Integer.parseInt(value(args, ++i));
+                case "--serve" -> serve = true;
+                case "--port" -> port = Integer.parseInt(value(args, ++i));
+                case "-h", "--help" -> {
+                    usage();
+                    return;
+                }
+                default -> words.add(args[i]);
+            }
+        }
+        SearchEngine.Accounts accounts = new SearchEngine.Accounts(System.getenv("BSKY_ACCESS_TOKEN"),
+                System.getenv("MASTODON_INSTANCE"), System.getenv("MASTODON_ACCESS_TOKEN"), List.of());
+        if (serve) {
+            new SearchServer(port, accounts).start();
+            return;
+        }
+        String query = String.join(" ", words).trim();
+        if (query.isEmpty()) {
+            usage();
+            System.exit(2);
+        }
+
+        if (!bluesky && !mastodon && !federated) {
+            bluesky = accounts.blueskyToken() != null;
+            mastodon = accounts.mastodonToken() != null && accounts.mastodonInstance() != null;
+            federated = !bluesky && !mastodon;
+        }
+
+        SearchRequest request = new SearchRequest(query, sort, bluesky, mastodon, federated);
+        SearchSession session = SearchEngine.open(request, accounts, problem -> System.err.println("[SearchCli] " + problem));
+        if (!session.hasMore()) {
+            System.err.println("[SearchCli] no backends configured for this search");
+            System.exit(1);
+        }
+        List<Post> posts = SearchEngine.collect(session, pages, outcome -> {
+            if (outcome.isSuccess()) {
+                System.err.println("[SearchCli] " + outcome.platform() + ": " + outcome.value().posts().size()
+                        + " posts in " + outcome.elapsedMillis() + " ms");
+            } else {
+                System.err.println("[SearchCli] " + outcome.platform() + " failed: "
+                        + (outcome.timedOut() ? "timed out" : String.valueOf(outcome.error())));
+            }
+        });
+        for (Post p : posts) out.println(PostJson.toJson(p));
+        System.err.println("[SearchCli] " + posts.size() + " posts, " + session.duplicatesDropped() + " duplicates dropped");
+        // backends keep idle HTTP connections on non-daemon threads
+        System.exit(0);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            System.err.println("Missing value for " + args[i - 1]);
+            usage();
+            System.exit(2);
+        }
+        return args[i];
+    }
+
+    private static void usage() {
+        System.err.println("Usage: SearchCli [--bluesky] [--mastodon] [--federated] [--sort latest|top] [--pages N] query...");
+        System.err.println("       SearchCli --serve [--port N]");
+    }
+}
@@ -0,0 +1,10 @@
+package app.model;
+
+/**
+ * Hashtag found by tag search.
+ *
+ * @param name tag without the leading "#"
+ * @param recentUses posts using it over the last days as reported by the instance, null if unknown
+ * @param url tag timeline on the web, may be null
+ */
+public record Hashtag(String name, Integer recentUses, String url) {}
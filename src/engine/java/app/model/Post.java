@@ -0,0 +1,42 @@
+package app.model;
+
+import java.time.Instant;
+
+/**
+ * Immutable, platform-neutral search result. Produced by the per-platform parsers and
+ * consumed by caching, ranking and rendering; it never references a JavaFX node.
+ *
+ * @param platform "bluesky" or "mastodon"
+ * @param uri platform-native identifier (at:// URI or Mastodon status URI), may be null
+ * @param handle handle including the leading "@"
+ * @param createdAt creation time, null when missing or unparseable
+ * @param text plain text content, never null
+ * @param imageUrl full-size first image, may be null
+ * @param imagePreviewUrl smaller rendition of the same image when the platform offers one, may be null
+ * @param likeCount may be null when the API did not report it
+ * @param repostCount may be null when the API did not report it
+ * @param url link to the post on the web, may be null
+ */
+public record Post(
+        String platform,
+        String uri,
+        String displayName,
+        String handle,
+        String avatarUrl,
+        Instant createdAt,
+        String text,
+        String imageUrl,
+        String imagePreviewUrl,
+        Integer likeCount,
+        Integer repostCount,
+        String url
+) {
+    public Post {
+        if (text == null) text = "";
+    }
+
+    /** URL to use for inline thumbnails: the preview when available, otherwise the full image. */
+    public String thumbnailUrl() {
+        return (imagePreviewUrl == null || imagePreviewUrl.isBlank()) ? imageUrl : imagePreviewUrl;
+    }
+}
@@ -0,0 +1,24 @@
+package app.model;
+
+/**
+ * Platform-neutral account found by actor search.
+ *
+ * @param platform "bluesky" or "mastodon"
+ * @param handle handle including the leading "@"
+ * @param description plain-text bio, never null
+ * @param followersCount may be null when the API did not report it
+ * @param url profile page on the web, may be null
+ */
+public record Profile(
+        String platform,
+        String handle,
+        String displayName,
+        String avatarUrl,
+        String description,
+        Integer followersCount,
+        String url
+) {
+    public Profile {
+        if (description == null) description = "";
+    }
+}
@@ -0,0 +1,41 @@
+package app.net;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Per-user application directories, following each platform's convention:
+ *   Windows: %APPDATA%\search-app
+ *   macOS:   ~/Library/Application Support/search-app
+ *   other:   $XDG_CONFIG_HOME/search-app (default ~/.config/search-app)
+ *
+ * Override with the system property searchapp.configDir.
+ */
+public final class AppDirs {
+
+    private static final String APP_NAME = "search-app";
+
+    private AppDirs() {}
+
+    public static Path configDir() {
+        String override = System.getProperty("searchapp.configDir");
+        if (override != null && !override.isBlank()) return Path.of(override);
+
+        String home = System.getProperty("user.home", ".");
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        if (os.contains("win")) {
+            String appData = System.getenv("APPDATA");
+            return (appData != null && !appData.isBlank() ? Path.of(appData) : Path.of(home)).resolve(APP_NAME);
+        }
+        if (os.contains("mac")) {
+            return Path.of(home, "Library", "Application Support", APP_NAME);
+        }
+        String xdg = System.getenv("XDG_CONFIG_HOME");
+        return (xdg != null && !xdg.isBlank() ? Path.of(xdg) : Path.of(home, ".config")).resolve(APP_NAME);
+    }
+
+    /** Directory for the on-disk HTTP cache. */
+    public static Path httpCacheDir() {
+        return configDir().resolve("cache").resolve("http");
+    }
+}
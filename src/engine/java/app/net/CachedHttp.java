@@ -0,0 +1,165 @@
+package app.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GET requests through {@link HttpTransport} backed by the on-disk {@link DiskCache}.
+ *
+ * A stored response younger than its freshness lifetime is returned without touching the
+ * network. An older one is revalidated with If-None-Match / If-Modified-Since, so an
+ * unchanged resource costs a 304 instead of a full body. The lifetime is the larger of
+ * the caller's {@code freshFor} and the server's Cache-Control max-age; responses marked
+ * no-store are never written. Requests carrying an Authorization header bypass the disk
+ * entirely: account data is never written in plain text, and callers keep such responses
+ * in their in-memory caches only.
+ */
+public final class CachedHttp {
+
+    /** Status and body of a GET; {@code fromCache} is true when the body came from disk. */
+    public record Response(int statusCode, String body, boolean fromCache) {}
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private CachedHttp() {}
+
+    public static Response send(HttpRequest request, Duration freshFor) throws IOException, InterruptedException {
+        String key = keyFor(request);
+        DiskCache.Entry entry = key == null ? null : DiskCache.shared().get(key);
+        Response fresh = freshFromDisk(entry);
+        if (fresh != null) return fresh;
+
+        HttpResponse<byte[]> resp = HttpTransport.client()
+                .send(conditional(request, entry), HttpResponse.BodyHandlers.ofByteArray());
+        return complete(key, entry, resp, freshFor);
+    }
+
+    public static CompletableFuture<Response> sendAsync(HttpRequest request, Duration freshFor) {
+        String key = keyFor(request);
+        DiskCache.Entry entry = key == null ? null : DiskCache.shared().get(key);
+        Response fresh = freshFromDisk(entry);
+        if (fresh != null) return CompletableFuture.completedFuture(fresh);
+
+        CompletableFuture<HttpResponse<byte[]>> exchange = HttpTransport.client()
+                .sendAsync(conditional(request, entry), HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<Response> result = exchange.thenApply(resp -> {
+            try {
+                return complete(key, entry, resp, freshFor);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // cancelling the returned future aborts the HTTP exchange as well
+        result.whenComplete((resp, error) -> {
+            if (result.isCancelled()) exchange.cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * Bytes of an immutable resource (e.g. an image on a CDN). A stored copy is used
+     * regardless of age; otherwise the resource is downloaded once and stored. The disk
+     * lookup runs on the transport's executor, so this is safe to call from the UI thread.
+     * Completes exceptionally for malformed URLs, failed requests and non-200 responses.
+     */
+    public static CompletableFuture<byte[]> fetchBytesAsync(String url) {
+        HttpRequest req;
+        try {
+            req = HttpRequest.newBuilder(URI.create(url))
+                    .GET()
+                    .timeout(HttpTransport.requestTimeout())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String key = keyFor(req);
+        HttpClient client = HttpTransport.client();
+        return CompletableFuture
+                .supplyAsync(() -> DiskCache.shared().get(key), client.executor().orElseThrow())
+                .thenCompose(entry -> {
+                    if (entry != null) {
+                        try {
+                            return CompletableFuture.completedFuture(entry.readBytes());
+                        } catch (IOException e) {
+                            // fall through to the network
+                        }
+                    }
+                    return client.sendAsync(req, HttpResponse.BodyHandlers.ofByteArray())
+                            .thenApply(resp -> {
+                                if (resp.statusCode() != 200) {
+                                    throw new UncheckedIOException(new IOException("HTTP " + resp.statusCode() + " for " + url));
+                                }
+                                if (!noStore(resp.headers())) {
+                                    DiskCache.shared().put(key, resp.body(), null, null, Duration.ZERO);
+                                }
+                                return resp.body();
+                            });
+                });
+    }
+
+    // null for authenticated requests, which are not cached on disk
+    private static String keyFor(HttpRequest request) {
+        if (request.headers().firstValue("Authorization").isPresent()) return null;
+        return DiskCache.keyFor(request.method(), request.uri().toString(), null);
+    }
+
+    private static Response freshFromDisk(DiskCache.Entry entry) {
+        if (entry == null || !entry.isFresh(Instant.now())) return null;
+        try {
+            return new Response(200, new String(entry.readBytes(), StandardCharsets.UTF_8), true);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static HttpRequest conditional(HttpRequest request, DiskCache.Entry entry) {
+        if (entry == null || (entry.etag() == null && entry.lastModified() == null)) return request;
+        HttpRequest.Builder b = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (entry.etag() != null) b.header("If-None-Match", entry.etag());
+        if (entry.lastModified() != null) b.header("If-Modified-Since", entry.lastModified());
+        return b.build();
+    }
+
+    private static Response complete(String key, DiskCache.Entry entry, HttpResponse<byte[]> resp, Duration freshFor)
+            throws IOException {
+        HttpHeaders headers = resp.headers();
+        Duration lifetime = lifetime(headers, freshFor);
+        if (resp.statusCode() == 304 && entry != null) {
+            DiskCache.shared().refresh(key, entry, lifetime);
+            return new Response(200, new String(entry.readBytes(), StandardCharsets.UTF_8), true);
+        }
+        if (key != null && resp.statusCode() == 200 && !noStore(headers)) {
+            DiskCache.shared().put(key, resp.body(),
+                    headers.firstValue("ETag").orElse(null),
+                    headers.firstValue("Last-Modified").orElse(null),
+                    lifetime);
+        }
+        return new Response(resp.statusCode(), new String(resp.body(), StandardCharsets.UTF_8), false);
+    }
+
+    private static Duration lifetime(HttpHeaders headers, Duration freshFor) {
+        String cc = headers.firstValue("Cache-Control").orElse("");
+        if (cc.contains("no-cache")) return Duration.ZERO;
+        Matcher m = MAX_AGE.matcher(cc);
+        if (m.find()) {
+            Duration serverMaxAge = Duration.ofSeconds(Long.parseLong(m.group(1)));
+            return serverMaxAge.compareTo(freshFor) > 0 ? serverMaxAge : freshFor;
+        }
+        return freshFor;
+    }
+
+    private static boolean noStore(HttpHeaders headers) {
+        return headers.firstValue("Cache-Control").orElse("").contains("no-store");
+    }
+}
@@ -0,0 +1,200 @@
+package app.net;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persistent, size-capped store for HTTP response bodies, so data fetched in an earlier
+ * run can be served (or cheaply revalidated) after a restart.
+ *
+ * Each entry is a pair of files named after the SHA-256 of its key: {@code <hash>.body}
+ * with the raw bytes and {@code <hash>.meta} with the validators (ETag, Last-Modified),
+ * store time and freshness lifetime. Reading an entry bumps the body's modification time,
+ * and the least recently used entries are deleted once the total size exceeds the cap.
+ *
+ * The cache is best effort: I/O errors are logged and treated as misses.
+ *
+ * Size cap: system property searchapp.diskCache.maxMB (default 200).
+ */
+public final class DiskCache {
+
+    private static final DiskCache SHARED = new DiskCache(AppDirs.httpCacheDir(),
+            Long.getLong("searchapp.diskCache.maxMB", 200) * 1024 * 1024);
+
+    /** Metadata of a stored response; the body stays on disk until read. */
+    public record Entry(Path body, String etag, String lastModified, Instant storedAt, Duration maxAge) {
+
+        public boolean isFresh(Instant now) {
+            return now.isBefore(storedAt.plus(maxAge));
+        }
+
+        public byte[] readBytes() throws IOException {
+            return Files.readAllBytes(body);
+        }
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+    // -1 until the directory has been scanned (on first write)
+    private long usedBytes = -1;
+
+    public DiskCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    public static DiskCache shared() {
+        return SHARED;
+    }
+
+    /** Stable file-name-safe key: hex SHA-256 of the given parts. */
+    public static String keyFor(String... parts) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (String p : parts) {
+                sha.update((p == null ? "" : p).getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** The stored entry for {@code key}, or null when absent or unreadable. */
+    public synchronized Entry get(String key) {
+        Path body = dir.resolve(key + ".body");
+        Path meta = dir.resolve(key + ".meta");
+        if (!Files.exists(body) || !Files.exists(meta)) return null;
+        try {
+            JSONObject m = new JSONObject(Files.readString(meta));
+            Files.setLastModifiedTime(body, FileTime.from(Instant.now()));
+            return new Entry(body,
+                    m.optString("etag", null),
+                    m.optString("lastModified", null),
+                    Instant.ofEpochMilli(m.optLong("storedAt", 0)),
+                    Duration.ofMillis(m.optLong("maxAgeMs", 0)));
+        } catch (Exception e) {
+            System.err.println("[DiskCache] dropping unreadable entry " + key + ": " + e.getMessage());
+            delete(key);
+            return null;
+        }
+    }
+
+    /** Stores (or replaces) an entry and trims the cache if it grew past the cap. */
+    public synchronized void put(String key, byte[] bytes, String etag, String lastModified, Duration maxAge) {
+        if (bytes.length > maxBytes) return;
+        try {
+            Files.createDirectories(dir);
+            ensureScanned();
+            Path body = dir.resolve(key + ".body");
+            usedBytes -= sizeOf(body);
+
+            // write to temp files and move into place so a crash never leaves a torn entry
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeMeta(key, etag, lastModified, Instant.now(), maxAge);
+            usedBytes += bytes.length;
+            trim();
+        } catch (IOException e) {
+            System.err.println("[DiskCache] write failed for " + key + ": " + e.getMessage());
+        }
+    }
+
+    /** Marks an entry as freshly validated (after a 304), keeping its body. */
+    public synchronized void refresh(String key, Entry entry, Duration maxAge) {
+        try {
+            writeMeta(key, entry.etag(), entry.lastModified(), Instant.now(), maxAge);
+        } catch (IOException e) {
+            System.err.println("[DiskCache] refresh failed for " + key + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void clear() {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.deleteIfExists(p);
+        } catch (IOException ignored) {
+        }
+        usedBytes = 0;
+    }
+
+    private void writeMeta(String key, String etag, String lastModified, Instant storedAt, Duration maxAge)
+            throws IOException {
+        JSONObject m = new JSONObject();
+        if (etag != null) m.put("etag", etag);
+        if (lastModified != null) m.put("lastModified", lastModified);
+        m.put("storedAt", storedAt.toEpochMilli());
+        m.put("maxAgeMs", maxAge.toMillis());
+        Path tmp = Files.createTempFile(dir, key, ".tmp");
+        Files.writeString(tmp, m.toString());
+        Files.move(tmp, dir.resolve(key + ".meta"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void ensureScanned() throws IOException {
+        if (usedBytes >= 0) return;
+        long total = 0;
+        for (Path p : bodies()) total += sizeOf(p);
+        usedBytes = total;
+    }
+
+    private void trim() throws IOException {
+        if (usedBytes <= maxBytes) return;
+        List<Path> oldestFirst = bodies();
+        oldestFirst.sort(Comparator.comparing(DiskCache::modifiedTime));
+        for (Path body : oldestFirst) {
+            if (usedBytes <= maxBytes) break;
+            String name = body.getFileName().toString();
+            usedBytes -= sizeOf(body);
+            delete(name.substring(0, name.length() - ".body".length()));
+        }
+    }
+
+    private List<Path> bodies() throws IOException {
+        if (!Files.isDirectory(dir)) return new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".body"))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private void delete(String key) {
+        try {
+            Files.deleteIfExists(dir.resolve(key + ".body"));
+            Files.deleteIfExists(dir.resolve(key + ".meta"));
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static long sizeOf(Path p) {
+        try {
+            return Files.exists(p) ? Files.size(p) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime modifiedTime(Path p) {
+        try {
+            return Files.getLastModifiedTime(p);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package app.net;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Health and latency of a set of equivalent hosts (e.g. the public Bluesky AppViews), used
+ * to send each request to the one most likely to answer fast and to decide when to hedge.
+ *
+ * Per host it keeps the last {@link #WINDOW} response times and an error score, an
+ * exponential average of failures that also halves every {@link #ERROR_HALF_LIFE} without
+ * new failures, so a host that failed is tried again once things have calmed down.
+ * {@link #ranked} orders hosts by typical latency weighted by that score; hosts without
+ * samples keep their configured order. {@link #hedgeDelay} is a host's p95 latency: a
+ * request still waiting after that is in its slow tail, and a second request to the next
+ * host is likely to answer first.
+ */
+public final class HostSelector {
+
+    static final int WINDOW = 64;
+    private static final int MIN_SAMPLES = 8;
+    private static final double ERROR_ALPHA = 0.3;
+    private static final Duration ERROR_HALF_LIFE = Duration.ofSeconds(60);
+    private static final long UNKNOWN_LATENCY_MS = 400;
+    private static final long MIN_HEDGE_MS = 100;
+    private static final long DEFAULT_HEDGE_MS = 1_000;
+    private static final long MAX_HEDGE_MS = 3_000;
+
+    private static final class Stats {
+        final long[] samples = new long[WINDOW];
+        int count;
+        int next;
+        double errorScore;
+        long errorAtNanos;
+
+        void add(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % WINDOW;
+            if (count < WINDOW) count++;
+        }
+
+        long percentile(double p) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(p * count) - 1)];
+        }
+
+        double error(long now) {
+            if (errorScore == 0) return 0;
+            double halfLives = (now - errorAtNanos) / (double) ERROR_HALF_LIFE.toNanos();
+            return errorScore * Math.pow(0.5, halfLives);
+        }
+    }
+
+    private final Map<String, Stats> hosts = new LinkedHashMap<>();
+
+    public HostSelector(List<String> hosts) {
+        for (String h : hosts) this.hosts.put(h, new Stats());
+    }
+
+    /** All hosts, the one expected to answer fastest first. */
+    public synchronized List<String> ranked() {
+        long now = System.nanoTime();
+        List<String> order = new ArrayList<>(hosts.keySet());
+        // stable sort: hosts with equal (e.g. no) history stay in configured order
+        order.sort(Comparator.comparingDouble(h -> cost(hosts.get(h), now)));
+        return order;
+    }
+
+    /** How long to wait on {@code host} before hedging onto another one. */
+    public synchronized Duration hedgeDelay(String host) {
+        Stats s = hosts.get(host);
+        if (s == null || s.count < MIN_SAMPLES) return Duration.ofMillis(DEFAULT_HEDGE_MS);
+        return Duration.ofMillis(Math.clamp(s.percentile(0.95), MIN_HEDGE_MS, MAX_HEDGE_MS));
+    }
+
+    /** A response from {@code host} in {@code millis}; only network responses should be reported. */
+    public synchronized void success(String host, long millis) {
+        Stats s = hosts.get(host);
+        if (s == null) return;
+        long now = System.nanoTime();
+        s.add(millis);
+        s.errorScore = s.error(now) * (1 - ERROR_ALPHA);
+        s.errorAtNanos = now;
+    }
+
+    /** A failed, refused or timed-out request to {@code host}. */
+    public synchronized void failure(String host) {
+        Stats s = hosts.get(host);
+        if (s == null) return;
+        long now = System.nanoTime();
+        s.errorScore = s.error(now) * (1 - ERROR_ALPHA) + ERROR_ALPHA;
+        s.errorAtNanos = now;
+    }
+
+    private static double cost(Stats s, long now) {
+        long typical = s.count == 0 ? UNKNOWN_LATENCY_MS : s.percentile(0.5);
+        // an error score near 1 makes a host ten times as expensive
+        return typical * (1 + 9 * s.error(now));
+    }
+
+    @Override
+    public synchronized String toString() {
+        long now = System.nanoTime();
+        StringBuilder sb = new StringBuilder("HostSelector{");
+        for (Map.Entry<String, Stats> e : hosts.entrySet()) {
+            Stats s = e.getValue();
+            sb.append(e.getKey()).append(": n=").append(s.count);
+            if (s.count > 0) sb.append(" p50=").append(s.percentile(0.5)).append(" p95=").append(s.percentile(0.95));
+            sb.append(String.format(" err=%.2f; ", s.error(now)));
+        }
+        return sb.append('}').toString();
+    }
+}
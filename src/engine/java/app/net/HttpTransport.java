@@ -0,0 +1,64 @@
+package app.net;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application-wide HTTP transport. Every outbound API call goes through the same
+ * HttpClient so TLS sessions and HTTP/2 connections are reused between requests.
+ *
+ * Timeouts and pool size can be tuned with system properties:
+ *   searchapp.http.connectTimeoutMs (default 10000)
+ *   searchapp.http.requestTimeoutMs (default 10000)
+ *   searchapp.http.threads          (default 8)
+ */
+public final class HttpTransport {
+
+    private static final Duration CONNECT_TIMEOUT =
+            Duration.ofMillis(Long.getLong("searchapp.http.connectTimeoutMs", 10_000));
+    private static final Duration REQUEST_TIMEOUT =
+            Duration.ofMillis(Long.getLong("searchapp.http.requestTimeoutMs", 10_000));
+    private static final int THREADS = Math.max(1, Integer.getInteger("searchapp.http.threads", 8));
+
+    private static volatile HttpClient client;
+
+    private HttpTransport() {}
+
+    /** The shared client, created on first use. */
+    public static HttpClient client() {
+        HttpClient c = client;
+        if (c == null) {
+            synchronized (HttpTransport.class) {
+                c = client;
+                if (c == null) {
+                    c = client = build();
+                }
+            }
+        }
+        return c;
+    }
+
+    /** Default per-request timeout; use with HttpRequest.Builder.timeout(...). */
+    public static Duration requestTimeout() {
+        return REQUEST_TIMEOUT;
+    }
+
+    private static HttpClient build() {
+        AtomicInteger n = new AtomicInteger();
+        // Bounded pool for async response handling; daemon so it never keeps the app alive
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "http-transport-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package app.net;
+
+import org.json.JSONObject;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Small named JSON documents (sessions, keys) encrypted at rest with AES-256-GCM under
+ * the config directory's "secure" folder. Each document is bound to its name, so files
+ * cannot be swapped for one another.
+ *
+ * The key is a random 256-bit key in secure/store.key. Like the documents, it is readable
+ * only by the user where the file system supports permissions. This keeps tokens out of
+ * plain-text files and out of copies of the documents. It does not protect them from
+ * someone who can read all of the user's files.
+ */
+public final class SecureStore {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int KEY_BYTES = 32;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final byte FORMAT = 1;
+
+    private static volatile SecureStore shared;
+
+    private final Path dir;
+    private final SecureRandom random = new SecureRandom();
+    private SecretKey key;
+
+    SecureStore(Path dir) {
+        this.dir = dir;
+    }
+
+    public static SecureStore shared() {
+        SecureStore s = shared;
+        if (s == null) {
+            synchronized (SecureStore.class) {
+                s = shared;
+                if (s == null) shared = s = new SecureStore(AppDirs.configDir().resolve("secure"));
+            }
+        }
+        return s;
+    }
+
+    /** The stored document, or null when there is none or it cannot be decrypted. */
+    public synchronized JSONObject read(String name) {
+        Path file = file(name);
+        if (!Files.exists(file)) return null;
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (data.length < 1 + IV_BYTES || data[0] != FORMAT) throw new IOException("unknown format");
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key(), new GCMParameterSpec(TAG_BITS, data, 1, IV_BYTES));
+            cipher.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+            byte[] plain = cipher.doFinal(data, 1 + IV_BYTES, data.length - 1 - IV_BYTES);
+            try {
+                return new JSONObject(new String(plain, StandardCharsets.UTF_8));
+            } finally {
+                Arrays.fill(plain, (byte) 0);
+            }
+        } catch (Exception e) {
+            System.err.println("[SecureStore] could not read " + name + ": " + e);
+            return null;
+        }
+    }
+
+    public synchronized void write(String name, JSONObject document) throws IOException {
+        byte[] plain = document.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key(), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(plain);
+            byte[] data = new byte[1 + IV_BYTES + sealed.length];
+            data[0] = FORMAT;
+            System.arraycopy(iv, 0, data, 1, IV_BYTES);
+            System.arraycopy(sealed, 0, data, 1 + IV_BYTES, sealed.length);
+            writeOwnerOnly(file(name), data);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Encryption failed", e);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    public synchronized void delete(String name) {
+        try {
+            Files.deleteIfExists(file(name));
+        } catch (IOException e) {
+            System.err.println("[SecureStore] could not delete " + name + ": " + e.getMessage());
+        }
+    }
+
+    /** Writes {@code bytes} atomically to a file only the current user can read. */
+    public static void writeOwnerOnly(Path file, byte[] bytes) throws IOException {
+        boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        if (!Files.isDirectory(file.getParent())) {
+            Files.createDirectories(file.getParent().getParent());
+            if (posix) {
+                Files.createDirectory(file.getParent(),
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectory(file.getParent());
+            }
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        if (posix) {
+            Files.createFile(tmp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(tmp);
+        }
+        Files.write(tmp, bytes);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path file(String name) {
+        return dir.resolve(name + ".enc");
+    }
+
+    private SecretKey key() throws IOException {
+        if (key != null) return key;
+        Path file = dir.resolve("store.key");
+        byte[] raw;
+        if (Files.exists(file)) {
+            raw = Files.readAllBytes(file);
+            if (raw.length != KEY_BYTES) throw new IOException("Corrupt key file " + file);
+        } else {
+            raw = new byte[KEY_BYTES];
+            random.nextBytes(raw);
+            writeOwnerOnly(file, raw);
+        }
+        key = new SecretKeySpec(raw, "AES");
+        return key;
+    }
+}
@@ -0,0 +1,92 @@
+package app.search;
+
+import app.model.Post;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses app.bsky.feed.searchPosts responses.
+ */
+public final class BlueskyPostParser implements PostParser {
+
+    @Override
+    public List<Post> parse(String body) {
+        return parsePosts(new JSONObject(body));
+    }
+
+    /** Posts plus the response cursor, parsed from a single pass over the body. */
+    public SearchPage parsePage(String body) {
+        JSONObject json = new JSONObject(body);
+        List<Post> posts = parsePosts(json);
+        String cursor = json.optString("cursor", null);
+        if (cursor != null && cursor.isBlank()) cursor = null;
+        return new SearchPage(posts, posts.isEmpty() ? null : cursor);
+    }
+
+    private static List<Post> parsePosts(JSONObject json) {
+        JSONArray items = json.optJSONArray("posts");
+        if (items == null) return new ArrayList<>();
+
+        List<Post> posts = new ArrayList<>(items.length());
+        for (int i = 0; i < items.length(); i++) {
+            JSONObject p = items.optJSONObject(i);
+            if (p != null) posts.add(parsePost(p));
+        }
+        return posts;
+    }
+
+    static Post parsePost(JSONObject p) {
+        JSONObject author = p.optJSONObject("author");
+        String displayName = author == null ? "" : author.optString("displayName", "");
+        String handle = author == null ? "" : author.optString("handle", "");
+        String avatar = author == null ? null : author.optString("avatar", null);
+
+        JSONObject record = p.optJSONObject("record");
+        String text = record == null ? "" : record.optString("text", "");
+        String createdAt = record == null ? p.optString("indexedAt", null)
+                                          : record.optString("createdAt", p.optString("indexedAt", null));
+
+        Integer likeCount = p.has("likeCount") ? p.optInt("likeCount") : null;
+        Integer repostCount = p.has("repostCount") ? p.optInt("repostCount") : null;
+
+        // Extract post URI to build URL
+        String uri = p.optString("uri", null);
+        String postUrl = buildBlueskyUrl(handle, uri);
+
+        JSONObject image = null;
+        JSONObject embed = p.optJSONObject("embed");
+        if (embed != null) {
+            image = firstImage(embed.optJSONArray("images"));
+            if (image == null) {
+                JSONObject media = embed.optJSONObject("media");
+                if (media != null) image = firstImage(media.optJSONArray("images"));
+            }
+        }
+        String imageUrl = image == null ? null : image.optString("fullsize", image.optString("thumb", null));
+        String thumbUrl = image == null ? null : image.optString("thumb", null);
+
+        return new Post(
+                "bluesky", uri, displayName, "@" + handle, avatar, PostParser.parseInstant(createdAt),
+                text, imageUrl, thumbUrl, likeCount, repostCount, postUrl
+        );
+    }
+
+    private static JSONObject firstImage(JSONArray imgs) {
+        if (imgs == null || imgs.length() == 0) return null;
+        return imgs.optJSONObject(0);
+    }
+
+    static String buildBlueskyUrl(String handle, String uri) {
+        if (uri == null || uri.isBlank() || handle == null || handle.isBlank()) {
+            return null;
+        }
+        // URI format: at://did:plc:xxxxx/app.bsky.feed.post/xxxxx
+        // URL format: https://bsky.app/profile/handle.bsky.social/post/xxxxx
+        int slash = uri.lastIndexOf('/');
+        if (slash < 0 || slash == uri.length() - 1) return null;
+        return "https://bsky.app/profile/" + handle + "/post/" + uri.substring(slash + 1);
+    }
+}
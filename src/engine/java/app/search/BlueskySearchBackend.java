@@ -0,0 +1,177 @@
+package app.search;
+
+import app.net.CachedHttp;
+import app.net.HostSelector;
+import app.net.HttpTransport;
+import searchapp.DPoPSession;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bluesky post search via app.bsky.feed.searchPosts. Asks the public AppViews first,
+ * routed and hedged by a {@link HostSelector}, and falls back to the user's PDS
+ * (DPoP-bound token) when they all refuse or fail.
+ */
+public final class BlueskySearchBackend implements SearchBackend {
+
+    static final int PAGE_LIMIT = 50;
+
+    // equivalent public AppViews; order is the preference until latencies are known
+    private static final HostSelector APPVIEWS = new HostSelector(List.of(
+        "https://public.api.bsky.app",
+        "https://api.bsky.app"
+    ));
+    private static final String PDS_HOST = "https://bsky.social";
+
+    private final String accessJwt;
+    private final BlueskyPostParser parser = new BlueskyPostParser();
+
+    public BlueskySearchBackend(String accessJwt) {
+        this.accessJwt = accessJwt;
+    }
+
+    @Override
+    public String platform() {
+        return "bluesky";
+    }
+
+    @Override
+    public SearchPage fetch(String query, String sort, String cursor) throws Exception {
+        return parser.parsePage(searchRaw(query, sort, cursor));
+    }
+
+    // Raw Bluesky search: returns HTTP body on 2xx
+    String searchRaw(String query, String sort, String cursor) throws Exception {
+        String pathAndQuery = "/xrpc/app.bsky.feed.searchPosts?q=" + enc(query) + "&limit=" + PAGE_LIMIT
+                + (sort != null ? "&sort=" + enc(sort) : "")
+                + (cursor != null ? "&cursor=" + enc(cursor) : "");
+        String body = searchAppViews(pathAndQuery);
+        if (body != null) return body;
+
+        if (accessJwt != null && !accessJwt.isBlank()) {
+            String url = PDS_HOST + pathAndQuery;
+            // nonce remembered from earlier PDS responses, so this is normally one round trip
+            var resp = DPoPSession.shared().send(HttpTransport.client(), "GET", url, proof -> pdsRequest(url, proof));
+            int code = resp.statusCode();
+            if (code / 100 == 2) return resp.body();
+            throw new RuntimeException("Bluesky (PDS) search failed: " + code + " " + shortBody(resp.body()));
+        }
+        throw new RuntimeException("Bluesky search refused or failed on every AppView and no PDS fallback available.");
+    }
+
+    private record Attempt(String host, CachedHttp.Response response, Throwable error, long elapsedMillis) {}
+
+    /**
+     * Asks the AppViews, fastest first according to {@link #APPVIEWS}. When the first has
+     * not answered within its p95 latency, the same request goes to the next one as well
+     * and whichever succeeds first wins. A host that refuses (403), times out (408), is
+     * rate limiting (429) or fails is skipped; the losers' requests are cancelled.
+     *
+     * @return the body, or null when every AppView refused or failed
+     */
+    private static String searchAppViews(String pathAndQuery) throws Exception {
+        List<String> hosts = APPVIEWS.ranked();
+        BlockingQueue<Attempt> done = new LinkedBlockingQueue<>();
+        List<CompletableFuture<CachedHttp.Response>> inFlight = new ArrayList<>();
+        int started = 0;
+        int finished = 0;
+        boolean hedged = false;
+        inFlight.add(send(hosts.get(started++), pathAndQuery, done));
+        try {
+            while (finished < started) {
+                Attempt a;
+                if (!hedged && started < hosts.size()) {
+                    Duration delay = APPVIEWS.hedgeDelay(hosts.get(started - 1));
+                    a = done.poll(delay.toMillis(), TimeUnit.MILLISECONDS);
+                    if (a == null) {
+                        // slow tail: race the next AppView instead of waiting it out
+                        hedged = true;
+                        inFlight.add(send(hosts.get(started++), pathAndQuery, done));
+                        continue;
+                    }
+                } else {
+                    a = done.take();
+                }
+                finished++;
+                if (a.error() == null) {
+                    int code = a.response().statusCode();
+                    if (code / 100 == 2) return a.response().body();
+                    if (!isHostProblem(code)) {
+                        // a bad request fails the same way everywhere
+                        throw new RuntimeException("Bluesky search failed: " + code + " " + shortBody(a.response().body()));
+                    }
+                    System.err.println("[Bluesky] AppView " + code + " on " + a.host() + " – trying fallback");
+                } else {
+                    System.err.println("[Bluesky] AppView " + a.host() + " failed: " + a.error());
+                }
+                if (started < hosts.size()) inFlight.add(send(hosts.get(started++), pathAndQuery, done));
+            }
+            return null;
+        } finally {
+            for (CompletableFuture<CachedHttp.Response> f : inFlight) f.cancel(true);
+        }
+    }
+
+    // answers that say something about the host rather than the request, so another host may do better
+    private static boolean isHostProblem(int code) {
+        return code == 403 || code == 408 || code == 429 || code >= 500;
+    }
+
+    // returns the request's own future, so cancelling it aborts the request
+    private static CompletableFuture<CachedHttp.Response> send(String host, String pathAndQuery, BlockingQueue<Attempt> done) {
+        var req = HttpRequest.newBuilder()
+            .uri(URI.create(host + pathAndQuery))
+            .GET()
+            .header("User-Agent", "SearchApp/1.0")
+            .header("Accept", "application/json")
+            .timeout(HttpTransport.requestTimeout())
+            .build();
+        long start = System.nanoTime();
+        // public AppView responses are cached on disk; PDS requests below carry one-shot DPoP proofs
+        CompletableFuture<CachedHttp.Response> request = CachedHttp.sendAsync(req, CachingSearchBackend.TTL);
+        request.whenComplete((resp, error) -> {
+            // cancelled because another host answered first: says nothing about this one
+            if (error instanceof CancellationException) return;
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (error != null || isHostProblem(resp.statusCode())) {
+                APPVIEWS.failure(host);
+            } else if (!resp.fromCache()) {
+                APPVIEWS.success(host, millis);
+            }
+            done.add(new Attempt(host, resp, error, millis));
+        });
+        return request;
+    }
+
+    private HttpRequest pdsRequest(String url, String dpopProof) {
+        return HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .GET()
+            .header("Authorization", "DPoP " + accessJwt)
+            .header("DPoP", dpopProof)
+            .header("User-Agent", "SearchApp/1.0")
+            .header("Accept", "application/json")
+            .timeout(HttpTransport.requestTimeout())
+            .build();
+    }
+
+    static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+
+    static String shortBody(String body) {
+        if (body == null) return "";
+        return body.length() > 300 ? body.substring(0, 300) + "…" : body;
+    }
+}
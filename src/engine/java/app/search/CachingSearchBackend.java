@@ -0,0 +1,67 @@
+package app.search;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Serves repeated page requests from an in-memory cache shared by all searches, so
+ * re-running a recent query (or going back to it) does not hit the network or the rate limit.
+ * Public pages from earlier runs come from the backends' on-disk cache ({@link app.net.CachedHttp});
+ * pages fetched with an account's token are only ever kept here, in memory.
+ *
+ * Tunable with system properties:
+ *   searchapp.cache.ttlSeconds  (default 120)
+ *   searchapp.cache.maxEntries  (default 200)
+ */
+public final class CachingSearchBackend implements SearchBackend {
+
+    /** Cache key: where the page came from plus everything that changes its contents. */
+    public record Key(String sourceId, String query, String sort, String cursor) {}
+
+    // also the freshness window the backends give their responses in the disk cache
+    static final Duration TTL = Duration.ofSeconds(Long.getLong("searchapp.cache.ttlSeconds", 120));
+
+    private static final TtlLruCache<Key, SearchPage> CACHE =
+            new TtlLruCache<>(TTL, Integer.getInteger("searchapp.cache.maxEntries", 200));
+
+    private final SearchBackend delegate;
+
+    private CachingSearchBackend(SearchBackend delegate) {
+        this.delegate = delegate;
+    }
+
+    public static SearchBackend wrap(SearchBackend backend) {
+        return backend instanceof CachingSearchBackend ? backend : new CachingSearchBackend(backend);
+    }
+
+    /** The shared page cache, e.g. for logging its counters. */
+    public static TtlLruCache<Key, SearchPage> cache() {
+        return CACHE;
+    }
+
+    @Override
+    public String platform() {
+        return delegate.platform();
+    }
+
+    @Override
+    public String sourceId() {
+        return delegate.sourceId();
+    }
+
+    @Override
+    public SearchPage fetch(String query, String sort, String cursor) throws Exception {
+        Key key = new Key(sourceId(), normalizeQuery(query), sort, cursor);
+        SearchPage cached = CACHE.get(key);
+        if (cached != null) return cached;
+        SearchPage page = delegate.fetch(query, sort, cursor);
+        CACHE.put(key, page);
+        return page;
+    }
+
+    /** Case- and whitespace-insensitive form used for cache keys. */
+    public static String normalizeQuery(String query) {
+        if (query == null) return "";
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
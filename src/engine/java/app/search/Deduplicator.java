@@ -0,0 +1,154 @@
+package app.search;
+
+import app.model.Post;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Drops posts the user has already been shown in the current result stream.
+ *
+ * A post is a duplicate when it shares its canonical URI or web URL with an earlier post
+ * (the same status seen through two instances), or when its text is a near copy of an
+ * earlier post's (cross-posts between Bluesky and Mastodon). Near copies are found with a
+ * 64-bit SimHash of the normalized words: two texts within {@link #MAX_DISTANCE} bits are
+ * treated as the same. The hash is split into four 16-bit bands, and two hashes that close
+ * must agree exactly on at least one band, so each post costs four map lookups and a
+ * handful of comparisons: linear in the number of posts overall.
+ *
+ * Short texts ("gm", "lol") are not fingerprinted; too many unrelated posts would match.
+ * Thread-safe; one instance per search.
+ */
+public final class Deduplicator {
+
+    static final int MAX_DISTANCE = 3;
+    private static final int MIN_WORDS = 6;
+    private static final int BANDS = 4;
+
+    private static final Pattern LINK = Pattern.compile("https?://\\S+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}#@]+");
+
+    private final Set<String> seenLinks = new HashSet<>();
+    // band index + band value -> fingerprints having that band
+    private final List<Map<Integer, List<Long>>> bands = new ArrayList<>(BANDS);
+    private long dropped;
+
+    public Deduplicator() {
+        for (int i = 0; i < BANDS; i++) bands.add(new HashMap<>());
+    }
+
+    /** The posts of {@code batch} not seen before, in order; remembers them for later batches. */
+    public synchronized List<Post> filter(List<Post> batch) {
+        List<Post> out = new ArrayList<>(batch.size());
+        for (Post p : batch) {
+            if (accept(p)) out.add(p);
+        }
+        return out;
+    }
+
+    /** True if {@code post} is new; it then counts as seen. */
+    public synchronized boolean accept(Post post) {
+        String uri = canonicalLink(post.uri());
+        String url = canonicalLink(post.url());
+        if ((uri != null && seenLinks.contains(uri)) || (url != null && seenLinks.contains(url))) {
+            dropped++;
+            return false;
+        }
+
+        Long fingerprint = fingerprint(post.text());
+        if (fingerprint != null && nearDuplicate(fingerprint)) {
+            dropped++;
+            return false;
+        }
+
+        if (uri != null) seenLinks.add(uri);
+        if (url != null) seenLinks.add(url);
+        if (fingerprint != null) index(fingerprint);
+        return true;
+    }
+
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    private boolean nearDuplicate(long fp) {
+        for (int b = 0; b < BANDS; b++) {
+            List<Long> candidates = bands.get(b).get(band(fp, b));
+            if (candidates == null) continue;
+            for (long other : candidates) {
+                if (Long.bitCount(fp ^ other) <= MAX_DISTANCE) return true;
+            }
+        }
+        return false;
+    }
+
+    private void index(long fp) {
+        for (int b = 0; b < BANDS; b++) {
+            bands.get(b).computeIfAbsent(band(fp, b), k -> new ArrayList<>(1)).add(fp);
+        }
+    }
+
+    private static int band(long fp, int b) {
+        return (int) ((fp >>> (b * 16)) & 0xFFFF);
+    }
+
+    /** Lower-cased scheme and host, no fragment or trailing slash; null for blank input. */
+    static String canonicalLink(String link) {
+        if (link == null || link.isBlank()) return null;
+        String s = link.trim();
+        try {
+            URI u = URI.create(s);
+            if (u.getScheme() != null && u.getHost() != null) {
+                String path = u.getRawPath() == null ? "" : u.getRawPath();
+                if (path.endsWith("/")) path = path.substring(0, path.length() - 1);
+                s = u.getScheme().toLowerCase(Locale.ROOT) + "://" + u.getHost().toLowerCase(Locale.ROOT)
+                        + path + (u.getRawQuery() != null ? "?" + u.getRawQuery() : "");
+            }
+        } catch (IllegalArgumentException ignored) {
+            // not a URI (or an at:// URI with an unusual authority); compare as is
+        }
+        return s;
+    }
+
+    /** 64-bit SimHash of the text's words, or null when the text is too short to compare. */
+    static Long fingerprint(String text) {
+        if (text == null || text.isEmpty()) return null;
+        String normalized = NON_WORD.matcher(LINK.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ")).replaceAll(" ");
+        String[] words = normalized.trim().split(" ");
+        if (words.length < MIN_WORDS) return null;
+
+        int[] votes = new int[64];
+        for (String w : words) {
+            if (w.isEmpty()) continue;
+            long h = hash64(w);
+            for (int bit = 0; bit < 64; bit++) {
+                votes[bit] += ((h >>> bit) & 1L) != 0 ? 1 : -1;
+            }
+        }
+        long fp = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) fp |= 1L << bit;
+        }
+        return fp;
+    }
+
+    // FNV-1a, 64-bit, with a final avalanche so short words spread over all bits
+    private static long hash64(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
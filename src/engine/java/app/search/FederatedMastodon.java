@@ -0,0 +1,68 @@
+package app.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds the backends for a federated Mastodon search: the user's own instance
+ * (authenticated status search) plus a set of other instances queried anonymously,
+ * each as its own backend so the session fans them out in parallel and one slow
+ * instance only costs its own timeout.
+ *
+ * Tunable with system properties:
+ *   searchapp.mastodon.instances         comma-separated instance list (default: the registered
+ *                                        ones, or {@link #PUBLIC_INSTANCES} when there are none)
+ *   searchapp.mastodon.maxInstances      cap on the extra instances (default 6)
+ *   searchapp.mastodon.instanceTimeoutMs per-instance request timeout (default 6000)
+ */
+public final class FederatedMastodon {
+
+    /** Large public instances searched when nothing is configured or registered. */
+    static final List<String> PUBLIC_INSTANCES = List.of(
+            "mastodon.social", "fosstodon.org", "hachyderm.io", "mstdn.social", "infosec.exchange", "mas.to");
+
+    private static final int MAX_INSTANCES = Math.max(0, Integer.getInteger("searchapp.mastodon.maxInstances", 6));
+    private static final Duration INSTANCE_TIMEOUT =
+            Duration.ofMillis(Long.getLong("searchapp.mastodon.instanceTimeoutMs", 6_000));
+
+    private FederatedMastodon() {}
+
+    /**
+     * @param homeInstance the instance the user is logged into, or null
+     * @param accessToken token for {@code homeInstance}, or null
+     * @param knownInstances instances to fall back to when no list is configured; when empty
+     *                       too, {@link #PUBLIC_INSTANCES} are used
+     */
+    public static List<SearchBackend> backends(String homeInstance, String accessToken, Collection<String> knownInstances) {
+        List<SearchBackend> backends = new ArrayList<>();
+        String home = MastodonSearchBackend.normalizeInstance(homeInstance);
+        if (!home.isEmpty() && accessToken != null && !accessToken.isBlank()) {
+            backends.add(new MastodonSearchBackend(home, accessToken));
+        }
+        int extra = 0;
+        for (String instance : instances(knownInstances)) {
+            if (instance.equalsIgnoreCase(home)) continue;
+            if (extra++ == MAX_INSTANCES) break;
+            backends.add(new MastodonSearchBackend(instance, null, INSTANCE_TIMEOUT));
+        }
+        return backends;
+    }
+
+    private static Set<String> instances(Collection<String> knownInstances) {
+        Set<String> out = new LinkedHashSet<>();
+        String configured = System.getProperty("searchapp.mastodon.instances");
+        Collection<String> source = configured != null && !configured.isBlank()
+                ? List.of(configured.split(","))
+                : knownInstances.isEmpty() ? PUBLIC_INSTANCES : knownInstances;
+        for (String s : source) {
+            String inst = MastodonSearchBackend.normalizeInstance(s);
+            if (!inst.isEmpty()) out.add(inst.toLowerCase(Locale.ROOT));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,312 @@
+package app.search;
+
+import app.model.Post;
+import app.net.AppDirs;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-process inverted index over every post the app has downloaded, so a query can be
+ * answered from memory while (or instead of) the remote searches run.
+ *
+ * Each post gets a document id in arrival order; each word maps to the sorted ids of the
+ * posts containing it. Terms and prefixes (a range of the sorted term map) become bit sets
+ * that are intersected; phrases are checked against the candidates' text afterwards.
+ * Seeing a post again replaces the stored copy, so counts stay current; if its text or
+ * display name changed (an edited post) it is re-indexed under the new words.
+ *
+ * Holds at most searchapp.index.maxDocs posts (default 20000); the oldest are dropped
+ * first. Persistence is opt-in: with searchapp.index.persist=true the posts are written
+ * to the config directory on exit and read back in the background on the next start.
+ */
+public final class LocalIndex {
+
+    private static final int MAX_DOCS = Math.max(100, Integer.getInteger("searchapp.index.maxDocs", 20_000));
+    private static final boolean PERSIST = Boolean.parseBoolean(System.getProperty("searchapp.index.persist", "false"));
+    private static final Path FILE = AppDirs.configDir().resolve("index").resolve("posts.jsonl");
+
+    private static final LocalIndex SHARED = create();
+
+    // growable sorted array of document ids
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                // only re-indexed posts arrive out of order
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) return;
+                insertAt(-at - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        private void insertAt(int at, int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+
+        void addTo(BitSet set) {
+            for (int i = 0; i < size; i++) set.set(ids[i]);
+        }
+    }
+
+    private final int maxDocs;
+    // document id -> post; null once evicted
+    private final List<Post> docs = new ArrayList<>();
+    private final Map<String, Integer> idByKey = new HashMap<>();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private int live;
+    private int oldest;
+
+    public LocalIndex(int maxDocs) {
+        this.maxDocs = maxDocs;
+    }
+
+    public static LocalIndex shared() {
+        return SHARED;
+    }
+
+    private static LocalIndex create() {
+        LocalIndex index = new LocalIndex(MAX_DOCS);
+        if (PERSIST) {
+            Thread.ofVirtual().name("local-index-load").start(() -> index.load(FILE));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> index.save(FILE), "local-index-save"));
+        }
+        return index;
+    }
+
+    /** Adds (or refreshes) downloaded posts. */
+    public synchronized void addAll(Collection<Post> posts) {
+        for (Post p : posts) add(p);
+    }
+
+    public synchronized int size() {
+        return live;
+    }
+
+    /** Matching posts, newest first, at most {@code limit}. */
+    public synchronized List<Post> search(LocalQuery query, int limit) {
+        if (query.isEmpty() || live == 0) return List.of();
+
+        BitSet candidates = null;
+        for (String term : query.terms()) candidates = and(candidates, exact(term));
+        for (List<String> phrase : query.phrases()) {
+            for (String word : phrase) candidates = and(candidates, exact(word));
+        }
+        for (String prefix : query.prefixes()) candidates = and(candidates, prefix(prefix));
+        if (candidates == null || candidates.isEmpty()) return List.of();
+
+        List<Post> hits = new ArrayList<>();
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            Post p = docs.get(id);
+            if (p != null && matchesFilters(p, query) && containsPhrases(p, query.phrases())) hits.add(p);
+        }
+        hits.sort(Comparator.comparing(Post::createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /** Lower-cased words (letters, digits, underscore) of {@code text}, in order. */
+    public static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) return out;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_');
+            if (word && start < 0) start = i;
+            else if (!word && start >= 0) {
+                out.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return out;
+    }
+
+    private void add(Post p) {
+        String key = key(p);
+        Integer existing = idByKey.get(key);
+        if (existing != null) {
+            Post old = docs.set(existing, p);
+            if (!p.text().equals(old.text()) || !Objects.equals(p.displayName(), old.displayName())) {
+                unindex(existing, old);
+                index(existing, p);
+            }
+            return;
+        }
+        int id = docs.size();
+        docs.add(p);
+        idByKey.put(key, id);
+        live++;
+        index(id, p);
+
+        while (live > maxDocs) evictOldest();
+        // rebuild once evicted ids dominate, so postings do not keep growing
+        if (docs.size() > 2 * maxDocs) compact();
+    }
+
+    private void index(int id, Post p) {
+        for (String w : words(p)) postings.computeIfAbsent(w, k -> new Postings()).add(id);
+    }
+
+    private void unindex(int id, Post p) {
+        for (String w : words(p)) {
+            Postings list = postings.get(w);
+            if (list == null) continue;
+            list.remove(id);
+            if (list.size == 0) postings.remove(w);
+        }
+    }
+
+    private static Set<String> words(Post p) {
+        Set<String> words = new LinkedHashSet<>(tokenize(p.text()));
+        words.addAll(tokenize(p.displayName()));
+        return words;
+    }
+
+    private void evictOldest() {
+        while (docs.get(oldest) == null) oldest++;
+        idByKey.remove(key(docs.get(oldest)));
+        docs.set(oldest, null);
+        live--;
+        oldest++;
+    }
+
+    private void compact() {
+        List<Post> keep = new ArrayList<>(live);
+        for (Post p : docs) if (p != null) keep.add(p);
+        docs.clear();
+        idByKey.clear();
+        postings.clear();
+        live = 0;
+        oldest = 0;
+        for (Post p : keep) add(p);
+    }
+
+    private BitSet exact(String term) {
+        BitSet set = new BitSet(docs.size());
+        Postings p = postings.get(term);
+        if (p != null) p.addTo(set);
+        return set;
+    }
+
+    private BitSet prefix(String prefix) {
+        BitSet set = new BitSet(docs.size());
+        NavigableMap<String, Postings> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        for (Postings p : range.values()) p.addTo(set);
+        return set;
+    }
+
+    private static BitSet and(BitSet acc, BitSet next) {
+        if (acc == null) return next;
+        acc.and(next);
+        return acc;
+    }
+
+    private static boolean matchesFilters(Post p, LocalQuery q) {
+        if (!q.platforms().isEmpty() && !q.platforms().contains(p.platform())) return false;
+        if (q.author() != null) {
+            String handle = p.handle() == null ? "" : p.handle().toLowerCase(Locale.ROOT).replaceFirst("^@", "");
+            if (!handle.startsWith(q.author())) return false;
+        }
+        if (q.since() != null && (p.createdAt() == null || p.createdAt().isBefore(q.since()))) return false;
+        if (q.until() != null && (p.createdAt() == null || !p.createdAt().isBefore(q.until()))) return false;
+        return true;
+    }
+
+    private static boolean containsPhrases(Post p, List<List<String>> phrases) {
+        if (phrases.isEmpty()) return true;
+        List<String> words = tokenize(p.text());
+        for (List<String> phrase : phrases) {
+            if (Collections.indexOfSubList(words, phrase) < 0) return false;
+        }
+        return true;
+    }
+
+    private static String key(Post p) {
+        if (p.uri() != null && !p.uri().isBlank()) return p.uri();
+        if (p.url() != null && !p.url().isBlank()) return p.url();
+        return p.platform() + "|" + p.handle() + "|" + p.createdAt() + "|" + p.text().hashCode();
+    }
+
+    // ---- persistence ----
+
+    private void load(Path file) {
+        if (!Files.exists(file)) return;
+        List<Post> loaded = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) loaded.add(PostJson.fromJson(new JSONObject(line)));
+            }
+        } catch (Exception e) {
+            System.err.println("[LocalIndex] could not read " + file + ": " + e.getMessage());
+        }
+        synchronized (this) {
+            // posts fetched while loading are newer; add them after the stored ones
+            List<Post> fetched = new ArrayList<>(docs.size());
+            for (Post p : docs) if (p != null) fetched.add(p);
+            docs.clear();
+            idByKey.clear();
+            postings.clear();
+            live = 0;
+            oldest = 0;
+            for (Post p : loaded) add(p);
+            for (Post p : fetched) add(p);
+        }
+        System.out.println("[LocalIndex] loaded " + loaded.size() + " posts");
+    }
+
+    private void save(Path file) {
+        List<Post> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(live);
+            for (Post p : docs) if (p != null) snapshot.add(p);
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "posts", ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Post p : snapshot) {
+                    out.write(PostJson.toJson(p).toString());
+                    out.newLine();
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("[LocalIndex] could not write " + file + ": " + e.getMessage());
+        }
+    }
+}
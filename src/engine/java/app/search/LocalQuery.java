@@ -0,0 +1,100 @@
+package app.search;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parsed query for {@link LocalIndex}.
+ *
+ * Syntax (space separated, all parts must match):
+ *   word          term, matched against whole words
+ *   wor*          prefix
+ *   "two words"   phrase
+ *   from:alice    author handle (with or without "@", prefix of the handle)
+ *   platform:bluesky | platform:mastodon
+ *   since:2024-05-01  until:2024-06-01   (dates in the local time zone; until is exclusive)
+ *
+ * The same string is sent to the remote backends unchanged; Bluesky and Mastodon both
+ * understand from: and Bluesky understands since:/until:.
+ */
+public record LocalQuery(List<String> terms, List<String> prefixes, List<List<String>> phrases,
+                         String author, Set<String> platforms, Instant since, Instant until) {
+
+    public LocalQuery {
+        terms = List.copyOf(terms);
+        prefixes = List.copyOf(prefixes);
+        phrases = List.copyOf(phrases);
+        platforms = platforms == null ? Set.of() : Set.copyOf(platforms);
+    }
+
+    /** True when there is no text to match (filters alone are not searched). */
+    public boolean isEmpty() {
+        return terms.isEmpty() && prefixes.isEmpty() && phrases.isEmpty();
+    }
+
+    /** Same query restricted to {@code platforms} (empty: any platform). */
+    public LocalQuery onPlatforms(Set<String> platforms) {
+        return new LocalQuery(terms, prefixes, phrases, author, platforms, since, until);
+    }
+
+    public static LocalQuery parse(String query) {
+        List<String> terms = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        List<List<String>> phrases = new ArrayList<>();
+        String author = null;
+        String platform = null;
+        Instant since = null;
+        Instant until = null;
+
+        String q = query == null ? "" : query.trim();
+        int i = 0;
+        while (i < q.length()) {
+            char c = q.charAt(i);
+            if (Character.isWhitespace(c)) { i++; continue; }
+            if (c == '"') {
+                int end = q.indexOf('"', i + 1);
+                if (end < 0) end = q.length();
+                List<String> words = LocalIndex.tokenize(q.substring(i + 1, end));
+                if (words.size() == 1) terms.add(words.get(0));
+                else if (!words.isEmpty()) phrases.add(words);
+                i = end + 1;
+                continue;
+            }
+            int end = i;
+            while (end < q.length() && !Character.isWhitespace(q.charAt(end))) end++;
+            String token = q.substring(i, end);
+            i = end;
+
+            String lower = token.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("from:") && lower.length() > 5) {
+                author = lower.substring(5).replaceFirst("^@", "");
+            } else if (lower.startsWith("platform:") && lower.length() > 9) {
+                platform = lower.substring(9);
+            } else if (lower.startsWith("since:")) {
+                since = parseDate(lower.substring(6));
+            } else if (lower.startsWith("until:")) {
+                until = parseDate(lower.substring(6));
+            } else if (lower.endsWith("*") && lower.length() > 1) {
+                prefixes.addAll(LocalIndex.tokenize(lower.substring(0, lower.length() - 1)));
+            } else {
+                terms.addAll(LocalIndex.tokenize(lower));
+            }
+        }
+        return new LocalQuery(terms, prefixes, phrases, author,
+                platform == null ? Set.of() : Set.of(platform), since, until);
+    }
+
+    private static Instant parseDate(String s) {
+        try {
+            return LocalDate.parse(s).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package app.search;
+
+import app.model.Post;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Parses Mastodon /api/v2/search responses (the "statuses" array) and timeline responses
+ * (a bare array of statuses).
+ */
+public final class MastodonPostParser implements PostParser {
+
+    // Compiled once; String.replaceAll would recompile each pattern for every status
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public List<Post> parse(String body) {
+        JSONObject json = new JSONObject(body);
+        JSONArray statuses = json.optJSONArray("statuses");
+        if (statuses == null) return new ArrayList<>();
+        return parseStatuses(statuses);
+    }
+
+    public List<Post> parseStatuses(JSONArray statuses) {
+        List<Post> posts = new ArrayList<>(statuses.length());
+        for (int i = 0; i < statuses.length(); i++) {
+            JSONObject st = statuses.optJSONObject(i);
+            if (st != null) posts.add(parseStatus(st));
+        }
+        return posts;
+    }
+
+    static Post parseStatus(JSONObject st) {
+        // a boost carries the original status; show (and dedupe) that one
+        JSONObject reblog = st.optJSONObject("reblog");
+        if (reblog != null) st = reblog;
+
+        JSONObject acct = st.optJSONObject("account");
+        String displayName = acct == null ? "" : acct.optString("display_name", "");
+        String handle = acct == null ? "" : "@" + acct.optString("acct", "");
+        String avatar = acct == null ? null : acct.optString("avatar", null);
+
+        String text = stripHtml(st.optString("content", ""));
+        String createdAt = st.optString("created_at", null);
+
+        Integer likeCount = st.has("favourites_count") ? st.optInt("favourites_count") : null;
+        Integer repostCount = st.has("reblogs_count") ? st.optInt("reblogs_count") : null;
+
+        // Get the post URL directly from Mastodon API
+        String postUrl = st.optString("url", null);
+        String uri = st.optString("uri", postUrl);
+
+        String imageUrl = null;
+        String previewUrl = null;
+        JSONArray media = st.optJSONArray("media_attachments");
+        if (media != null) {
+            for (int j = 0; j < media.length(); j++) {
+                JSONObject m = media.optJSONObject(j);
+                if (m != null && "image".equalsIgnoreCase(m.optString("type", ""))) {
+                    imageUrl = m.optString("url", m.optString("preview_url", null));
+                    previewUrl = m.optString("preview_url", null);
+                    if (imageUrl != null && !imageUrl.isBlank()) break;
+                }
+            }
+        }
+
+        return new Post(
+                "mastodon", uri, displayName, handle, avatar, PostParser.parseInstant(createdAt),
+                text, imageUrl, previewUrl, likeCount, repostCount, postUrl
+        );
+    }
+
+    public static String stripHtml(String html) {
+        if (html == null || html.isEmpty()) return "";
+        String s = TAG.matcher(html).replaceAll(" ");
+        if (s.indexOf('&') >= 0) {
+            s = s.replace("&amp;", "&")
+                 .replace("&lt;", "<")
+                 .replace("&gt;", ">");
+        }
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,131 @@
+package app.search;
+
+import app.model.Post;
+import app.net.CachedHttp;
+import app.net.HttpTransport;
+import org.json.JSONArray;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Mastodon status search on a single instance.
+ *
+ * With an access token it uses /api/v2/search and pages with the "offset" parameter,
+ * which the API allows for authenticated requests. Without one (instances the user has
+ * no account on) status search is not available, so it reads the public hashtag timeline
+ * for the query instead, paging with max_id.
+ */
+public final class MastodonSearchBackend implements SearchBackend {
+
+    // Mastodon caps search at 40 per request and silently clamps larger values
+    static final int PAGE_LIMIT = 40;
+
+    private final String instance;
+    private final String accessToken;
+    private final Duration timeout;
+    private final MastodonPostParser parser = new MastodonPostParser();
+
+    public MastodonSearchBackend(String instance, String accessToken) {
+        this(instance, accessToken, HttpTransport.requestTimeout());
+    }
+
+    /** @param accessToken null for anonymous (hashtag timeline) search */
+    public MastodonSearchBackend(String instance, String accessToken, Duration timeout) {
+        this.instance = normalizeInstance(instance);
+        this.accessToken = accessToken == null || accessToken.isBlank() ? null : accessToken;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String platform() {
+        return "mastodon";
+    }
+
+    public String instance() {
+        return instance;
+    }
+
+    public boolean isAnonymous() {
+        return accessToken == null;
+    }
+
+    @Override
+    public String sourceId() {
+        return (isAnonymous() ? "mastodon-public@" : "mastodon@") + instance;
+    }
+
+    @Override
+    public SearchPage fetch(String query, String sort, String cursor) throws Exception {
+        if (isAnonymous()) return fetchTagTimeline(query, cursor);
+        int offset = cursor == null ? 0 : Integer.parseInt(cursor);
+        List<Post> posts = parser.parse(searchRaw(query, offset));
+        // offset paging has no explicit end marker; an empty page means we are done
+        String next = posts.isEmpty() ? null : String.valueOf(offset + posts.size());
+        return new SearchPage(posts, next);
+    }
+
+    // Raw Mastodon search: returns HTTP body on 2xx
+    String searchRaw(String query, int offset) throws Exception {
+        String url = "https://" + instance + "/api/v2/search?type=statuses&q=" + BlueskySearchBackend.enc(query)
+                + "&limit=" + PAGE_LIMIT + "&resolve=true"
+                + (offset > 0 ? "&offset=" + offset : "");
+
+        return get(url, "search");
+    }
+
+    // Public tag timeline: the closest thing to status search without an account
+    private SearchPage fetchTagTimeline(String query, String maxId) throws Exception {
+        String tag = toHashtag(query);
+        if (tag.isEmpty()) return new SearchPage(List.of(), null);
+
+        String url = "https://" + instance + "/api/v1/timelines/tag/" + BlueskySearchBackend.enc(tag)
+                + "?limit=" + PAGE_LIMIT
+                + (maxId != null ? "&max_id=" + BlueskySearchBackend.enc(maxId) : "");
+        JSONArray statuses = new JSONArray(get(url, "tag timeline"));
+        List<Post> posts = parser.parseStatuses(statuses);
+        String next = statuses.isEmpty() ? null : statuses.getJSONObject(statuses.length() - 1).optString("id", null);
+        return new SearchPage(posts, next);
+    }
+
+    private String get(String url, String what) throws Exception {
+        if (instance.isEmpty()) throw new IllegalArgumentException("Missing Mastodon instance host");
+
+        var b = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .GET()
+            .header("Accept", "application/json")
+            .header("User-Agent", "GRClient/1.0 (+https://grjimenez.github.io)")
+            .timeout(timeout);
+        if (accessToken != null) b.header("Authorization", "Bearer " + accessToken);
+
+        var resp = CachedHttp.send(b.build(), CachingSearchBackend.TTL);
+        if (resp.statusCode() / 100 != 2) {
+            String shortBody = BlueskySearchBackend.shortBody(resp.body());
+            System.err.println("[Mastodon] " + instance + " " + what + " failed HTTP " + resp.statusCode() + " body=" + shortBody);
+            throw new RuntimeException("Mastodon " + what + " failed: " + resp.statusCode() + " " + shortBody);
+        }
+        return resp.body();
+    }
+
+    /** "#Climate Change" -> "climatechange"; hashtags cannot contain spaces or punctuation. */
+    static String toHashtag(String query) {
+        if (query == null) return "";
+        StringBuilder sb = new StringBuilder(query.length());
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '_') sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeInstance(String instance) {
+        String inst = instance == null ? "" : instance.trim();
+        inst = inst.replaceFirst("^https?://", "");
+        inst = inst.replaceAll("^@", "");
+        return inst;
+    }
+}
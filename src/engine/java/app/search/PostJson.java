@@ -0,0 +1,46 @@
+package app.search;
+
+import app.model.Post;
+import org.json.JSONObject;
+
+/**
+ * Flat JSON form of a {@link Post}, used for the local index file and the CLI's output.
+ * Absent fields are left out rather than written as null.
+ */
+public final class PostJson {
+
+    private PostJson() {}
+
+    public static JSONObject toJson(Post p) {
+        JSONObject o = new JSONObject();
+        o.put("platform", p.platform());
+        o.putOpt("uri", p.uri());
+        o.putOpt("displayName", p.displayName());
+        o.putOpt("handle", p.handle());
+        o.putOpt("avatarUrl", p.avatarUrl());
+        o.putOpt("createdAt", p.createdAt() == null ? null : p.createdAt().toString());
+        o.put("text", p.text());
+        o.putOpt("imageUrl", p.imageUrl());
+        o.putOpt("imagePreviewUrl", p.imagePreviewUrl());
+        o.putOpt("likeCount", p.likeCount());
+        o.putOpt("repostCount", p.repostCount());
+        o.putOpt("url", p.url());
+        return o;
+    }
+
+    public static Post fromJson(JSONObject o) {
+        return new Post(
+                o.optString("platform", ""),
+                o.optString("uri", null),
+                o.optString("displayName", ""),
+                o.optString("handle", ""),
+                o.optString("avatarUrl", null),
+                PostParser.parseInstant(o.optString("createdAt", null)),
+                o.optString("text", ""),
+                o.optString("imageUrl", null),
+                o.optString("imagePreviewUrl", null),
+                o.has("likeCount") ? o.optInt("likeCount") : null,
+                o.has("repostCount") ? o.optInt("repostCount") : null,
+                o.optString("url", null));
+    }
+}
@@ -0,0 +1,30 @@
+package app.search;
+
+import app.model.Post;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Turns a raw search response body into posts. Implementations are stateless and
+ * thread-safe, so each backend can parse on its own thread.
+ */
+public interface PostParser {
+
+    List<Post> parse(String body);
+
+    /** Lenient ISO-8601 parse; null when missing or malformed. */
+    static Instant parseInstant(String iso) {
+        if (iso == null || iso.isBlank()) return null;
+        try {
+            return Instant.parse(iso);
+        } catch (Exception e) {
+            try {
+                return OffsetDateTime.parse(iso).toInstant();
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package app.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Completion index over short strings (handles, hashtags). Entries are kept in a sorted map
+ * keyed by their lower-cased form, so every completion of a prefix is one contiguous range;
+ * the range is ranked by how often each entry was seen.
+ *
+ * Thread-safe. Holds at most {@code maxEntries}; past that the least seen entries are dropped.
+ */
+public final class PrefixIndex {
+
+    // entries examined per lookup; a one-letter prefix can match thousands of handles
+    private static final int SCAN_LIMIT = 256;
+
+    private static final class Entry {
+        final String display;
+        int count;
+        Entry(String display) { this.display = display; }
+    }
+
+    private final TreeMap<String, Entry> entries = new TreeMap<>();
+    private final int maxEntries;
+
+    public PrefixIndex(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public synchronized void add(String value) {
+        if (value == null || value.isBlank()) return;
+        entries.computeIfAbsent(value.toLowerCase(Locale.ROOT), k -> new Entry(value)).count++;
+        if (entries.size() > maxEntries) dropRarest();
+    }
+
+    /** Up to {@code limit} entries starting with {@code prefix} (case-insensitive), most seen first. */
+    public synchronized List<String> complete(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<Entry> matches = new ArrayList<>();
+        for (Entry e : entries.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            matches.add(e);
+            if (matches.size() == SCAN_LIMIT) break;
+        }
+        matches.sort(Comparator.comparingInt((Entry e) -> e.count).reversed());
+        List<String> out = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) out.add(matches.get(i).display);
+        return out;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // drops the entries seen once (or the least seen) to get back under a tenth below the cap
+    private void dropRarest() {
+        int target = maxEntries - maxEntries / 10;
+        int threshold = 1;
+        while (entries.size() > target) {
+            final int t = threshold;
+            entries.values().removeIf(e -> e.count <= t && entries.size() > target);
+            threshold++;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package app.search;
+
+import app.model.Post;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result order for one search, applied the same way to every platform.
+ *
+ * "latest": newest first. "top": by a score mixing normalized engagement and how many of
+ * the query's words the post contains. Engagement is log(1 + likes + 2 * reposts) divided by
+ * the largest such value in the first page seen from that platform, because the platforms'
+ * counts are on very different scales. A post's score is computed once, so the order of
+ * posts already merged never changes as more pages arrive.
+ *
+ * Pages arrive one backend at a time; {@link #merge} folds each sorted page into the
+ * already sorted results in a single pass, which over all pages is a k-way merge.
+ */
+public final class Ranking {
+
+    private static final double ENGAGEMENT_WEIGHT = 0.7;
+    private static final double MATCH_WEIGHT = 0.3;
+
+    private final boolean top;
+    private final String[] queryTerms;
+    // per platform: log-engagement that maps to 1.0, fixed by its first page
+    private final Map<String, Double> engagementScale = new HashMap<>();
+    private final Map<Post, Double> scores = new IdentityHashMap<>();
+    private final Comparator<Post> order;
+
+    public Ranking(String sort, String query) {
+        this.top = "top".equalsIgnoreCase(sort);
+        this.queryTerms = query == null || query.isBlank()
+                ? new String[0]
+                : query.toLowerCase(Locale.ROOT).trim().split("\\s+");
+        Comparator<Post> newestFirst = Comparator.comparing(Post::createdAt,
+                Comparator.nullsLast(Comparator.<Instant>reverseOrder()));
+        this.order = top
+                ? Comparator.<Post>comparingDouble(this::score).reversed().thenComparing(newestFirst)
+                : newestFirst;
+    }
+
+    public boolean isTop() {
+        return top;
+    }
+
+    public Comparator<Post> comparator() {
+        return order;
+    }
+
+    /** A copy of {@code page} in result order. Scores its posts on first sight. */
+    public synchronized List<Post> sort(List<Post> page) {
+        if (top) prepareScores(page);
+        List<Post> sorted = new ArrayList<>(page);
+        sorted.sort(order);
+        return sorted;
+    }
+
+    /** Merges two lists already in result order into one, in linear time. */
+    public List<Post> merge(List<Post> a, List<Post> b) {
+        List<Post> out = new ArrayList<>(a.size() + b.size());
+        int i = 0, j = 0;
+        while (i < a.size() && j < b.size()) {
+            // ties keep what was there first
+            if (order.compare(b.get(j), a.get(i)) < 0) out.add(b.get(j++));
+            else out.add(a.get(i++));
+        }
+        while (i < a.size()) out.add(a.get(i++));
+        while (j < b.size()) out.add(b.get(j++));
+        return out;
+    }
+
+    private void prepareScores(List<Post> page) {
+        for (Post p : page) {
+            if (engagementScale.containsKey(p.platform())) continue;
+            double max = maxLogEngagement(page, p.platform());
+            // a page with no engagement at all cannot set the scale; wait for one that has some
+            if (max > 0) engagementScale.put(p.platform(), max);
+        }
+        for (Post p : page) {
+            scores.computeIfAbsent(p, this::computeScore);
+        }
+    }
+
+    private synchronized double score(Post p) {
+        Double s = scores.get(p);
+        return s != null ? s : computeScore(p);
+    }
+
+    private double computeScore(Post p) {
+        double scale = engagementScale.getOrDefault(p.platform(), 0.0);
+        double engagement = scale > 0 ? Math.min(1.0, logEngagement(p) / scale) : 0.0;
+        return ENGAGEMENT_WEIGHT * engagement + MATCH_WEIGHT * termMatch(p);
+    }
+
+    private double termMatch(Post p) {
+        if (queryTerms.length == 0) return 0.0;
+        String text = p.text().toLowerCase(Locale.ROOT);
+        int hits = 0;
+        for (String t : queryTerms) {
+            if (text.contains(t)) hits++;
+        }
+        return (double) hits / queryTerms.length;
+    }
+
+    private static double maxLogEngagement(List<Post> page, String platform) {
+        double max = 0;
+        for (Post p : page) {
+            if (platform.equals(p.platform())) max = Math.max(max, logEngagement(p));
+        }
+        return max;
+    }
+
+    private static double logEngagement(Post p) {
+        int likes = p.likeCount() == null ? 0 : p.likeCount();
+        int reposts = p.repostCount() == null ? 0 : p.repostCount();
+        return Math.log1p(likes + 2.0 * reposts);
+    }
+}
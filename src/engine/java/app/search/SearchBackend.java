@@ -0,0 +1,23 @@
+package app.search;
+
+/**
+ * A platform that can answer post searches one page at a time.
+ */
+public interface SearchBackend {
+
+    /** Platform key, e.g. "bluesky" or "mastodon". */
+    String platform();
+
+    /** Where results come from, e.g. "mastodon@fosstodon.org"; used for cache keys and diagnostics. */
+    default String sourceId() {
+        return platform();
+    }
+
+    /**
+     * Fetches one page of results. Blocking; called from dispatcher threads.
+     *
+     * @param sort "latest", "top" or null; backends that cannot sort ignore it
+     * @param cursor value of {@link SearchPage#nextCursor()} from the previous page, null for the first
+     */
+    SearchPage fetch(String query, String sort, String cursor) throws Exception;
+}
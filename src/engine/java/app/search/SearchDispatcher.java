@@ -0,0 +1,124 @@
+package app.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs one search call per platform at the same time and collects the outcomes.
+ * Wall-clock latency is the slowest backend (capped by the deadline) instead of the sum.
+ */
+public final class SearchDispatcher {
+
+    public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(15);
+
+    // Backends block in HttpClient.send, so a virtual thread per call is cheap.
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private SearchDispatcher() {}
+
+    /**
+     * Result of a single backend call.
+     * @param platform key the backend was registered under (e.g. "bluesky")
+     * @param value result on success, otherwise null
+     * @param error failure cause, or null on success / timeout
+     * @param timedOut true if the backend was cut off at the deadline
+     * @param elapsedMillis time spent by this backend
+     */
+    public record Outcome<T>(String platform, T value, Throwable error, boolean timedOut, long elapsedMillis) {
+        public boolean isSuccess() {
+            return error == null && !timedOut;
+        }
+    }
+
+    /**
+     * Starts every backend immediately and waits until all of them finish or the deadline passes.
+     * Backends still running at the deadline are cancelled (interrupting their blocking I/O)
+     * and reported as timed out; results of the other backends are kept.
+     *
+     * @param backends platform key -> search call, in the order outcomes should be returned
+     * @param deadline per-backend deadline, measured from dispatch
+     */
+    public static <T> List<Outcome<T>> runAll(Map<String, Callable<T>> backends, Duration deadline)
+            throws InterruptedException {
+        return runAll(backends, deadline, outcome -> {});
+    }
+
+    /**
+     * Same as {@link #runAll(Map, Duration)}, but also hands every outcome to {@code onOutcome}
+     * as soon as it is known, so callers can publish the fastest backend's results without
+     * waiting for the slowest. Called exactly once per backend, from the backend's thread
+     * (or the dispatching thread for timeouts).
+     */
+    public static <T> List<Outcome<T>> runAll(Map<String, Callable<T>> backends, Duration deadline,
+                                              Consumer<Outcome<T>> onOutcome) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + deadline.toNanos();
+
+        Map<String, Future<Outcome<T>>> running = new LinkedHashMap<>();
+        Map<String, AtomicBoolean> reported = new LinkedHashMap<>();
+        for (Map.Entry<String, Callable<T>> e : backends.entrySet()) {
+            AtomicBoolean done = new AtomicBoolean();
+            reported.put(e.getKey(), done);
+            running.put(e.getKey(), EXECUTOR.submit(() -> {
+                Outcome<T> outcome = call(e.getKey(), e.getValue());
+                if (done.compareAndSet(false, true)) publish(onOutcome, outcome);
+                return outcome;
+            }));
+        }
+
+        List<Outcome<T>> outcomes = new ArrayList<>(running.size());
+        try {
+            for (Map.Entry<String, Future<Outcome<T>>> e : running.entrySet()) {
+                Future<Outcome<T>> future = e.getValue();
+                long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+                try {
+                    outcomes.add(future.get(remaining, TimeUnit.NANOSECONDS));
+                } catch (TimeoutException te) {
+                    future.cancel(true);
+                    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                    System.err.println("[Search] " + e.getKey() + " cut off after " + elapsed + " ms");
+                    Outcome<T> cutOff = new Outcome<>(e.getKey(), null, null, true, elapsed);
+                    if (reported.get(e.getKey()).compareAndSet(false, true)) publish(onOutcome, cutOff);
+                    outcomes.add(cutOff);
+                } catch (ExecutionException ee) {
+                    // call() never throws, but keep the outcome list complete anyway
+                    outcomes.add(new Outcome<>(e.getKey(), null, ee.getCause(), false, 0));
+                }
+            }
+        } catch (InterruptedException ie) {
+            running.values().forEach(f -> f.cancel(true));
+            throw ie;
+        }
+        return outcomes;
+    }
+
+    private static <T> void publish(Consumer<Outcome<T>> onOutcome, Outcome<T> outcome) {
+        try {
+            onOutcome.accept(outcome);
+        } catch (Exception ex) {
+            System.err.println("[Search] result listener failed for " + outcome.platform() + ": " + ex.getMessage());
+        }
+    }
+
+    private static <T> Outcome<T> call(String platform, Callable<T> backend) {
+        long start = System.nanoTime();
+        try {
+            T value = backend.call();
+            return new Outcome<>(platform, value, null, false, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception ex) {
+            return new Outcome<>(platform, null, ex, false, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
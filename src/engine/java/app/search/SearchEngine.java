@@ -0,0 +1,92 @@
+package app.search;
+
+import app.model.Post;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Entry point to the search path without any UI: turns a {@link SearchRequest} and the
+ * user's accounts into cached backends and a {@link SearchSession}. The search box and
+ * the command line both go through here, so they search the same way.
+ */
+public final class SearchEngine {
+
+    /**
+     * Credentials the backends need. Tokens may be null when not logged in.
+     *
+     * @param knownInstances Mastodon instances to use for federated search when none are configured
+     */
+    public record Accounts(String blueskyToken, String mastodonInstance, String mastodonToken,
+                           Collection<String> knownInstances) {
+        public Accounts {
+            if (knownInstances == null) knownInstances = List.of();
+        }
+    }
+
+    private SearchEngine() {}
+
+    /**
+     * Backends for the platforms the request asks for. A platform that needs a login the
+     * accounts lack is left out and reported to {@code problems} as a short message.
+     */
+    public static List<SearchBackend> backends(SearchRequest request, Accounts accounts, Consumer<String> problems) {
+        List<SearchBackend> backends = new ArrayList<>();
+        if (request.isBluesky()) {
+            if (isBlank(accounts.blueskyToken())) {
+                problems.accept("Not logged into Bluesky.");
+            } else {
+                backends.add(CachingSearchBackend.wrap(new BlueskySearchBackend(accounts.blueskyToken())));
+            }
+        }
+        if (request.isFederated()) {
+            String home = request.isMastodon() ? accounts.mastodonInstance() : null;
+            List<SearchBackend> federated = FederatedMastodon.backends(home, accounts.mastodonToken(), accounts.knownInstances());
+            if (federated.isEmpty()) problems.accept("No Mastodon instances to search (see searchapp.mastodon.instances).");
+            for (SearchBackend b : federated) {
+                backends.add(CachingSearchBackend.wrap(b));
+            }
+        } else if (request.isMastodon()) {
+            if (isBlank(accounts.mastodonToken()) || isBlank(accounts.mastodonInstance())) {
+                problems.accept("Not logged into Mastodon.");
+            } else {
+                backends.add(CachingSearchBackend.wrap(
+                        new MastodonSearchBackend(accounts.mastodonInstance(), accounts.mastodonToken())));
+            }
+        }
+        return backends;
+    }
+
+    public static SearchSession open(SearchRequest request, Accounts accounts, Consumer<String> problems) {
+        return new SearchSession(request.getQuery(), request.getSort(), backends(request, accounts, problems));
+    }
+
+    /**
+     * Loads up to {@code maxPages} pages and returns every new post, merged in ranking order.
+     * Each backend's outcome is also passed to {@code onPage} as it arrives (may be null).
+     * Blocking, like {@link SearchSession#loadNextPage}.
+     */
+    public static List<Post> collect(SearchSession session, int maxPages,
+                                     Consumer<SearchDispatcher.Outcome<SearchPage>> onPage) throws InterruptedException {
+        List<Post> merged = new ArrayList<>();
+        for (int i = 0; i < maxPages && session.hasMore(); i++) {
+            List<List<Post>> pages = new ArrayList<>();
+            session.loadNextPage(outcome -> {
+                if (onPage != null) onPage.accept(outcome);
+                if (outcome.isSuccess()) {
+                    synchronized (pages) {
+                        pages.add(outcome.value().posts());
+                    }
+                }
+            });
+            for (List<Post> page : pages) merged = session.ranking().merge(merged, page);
+        }
+        return merged;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
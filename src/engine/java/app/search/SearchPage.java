@@ -0,0 +1,21 @@
+package app.search;
+
+import app.model.Post;
+
+import java.util.List;
+
+/**
+ * One page of results from a single backend.
+ *
+ * @param nextCursor opaque cursor for the following page, null when the backend is exhausted
+ */
+public record SearchPage(List<Post> posts, String nextCursor) {
+    public SearchPage {
+        // pages are shared through the result cache, so they must not be modified after creation
+        posts = List.copyOf(posts);
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,35 @@
+package app.search;
+
+/**
+ * What to search for and where, independent of how the request was made (search box, CLI, ...).
+ * Sort is "latest", "top" or null for the platforms' default order.
+ */
+public class SearchRequest {
+    private final String query;
+    private final String sort;
+    private final boolean bluesky;
+    private final boolean mastodon;
+    private final boolean federated;
+
+    public SearchRequest(String query, boolean bluesky, boolean mastodon) {
+        this(query, null, bluesky, mastodon, false);
+    }
+
+    /**
+     * @param mastodon search the logged-in Mastodon instance
+     * @param federated also search other Mastodon instances, see {@link FederatedMastodon}
+     */
+    public SearchRequest(String query, String sort, boolean bluesky, boolean mastodon, boolean federated) {
+        this.query = query;
+        this.sort = sort;
+        this.bluesky = bluesky;
+        this.mastodon = mastodon;
+        this.federated = federated;
+    }
+
+    public String getQuery() { return query; }
+    public String getSort() { return sort; }
+    public boolean isBluesky() { return bluesky; }
+    public boolean isMastodon() { return mastodon; }
+    public boolean isFederated() { return federated; }
+}
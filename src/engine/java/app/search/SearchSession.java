@@ -0,0 +1,149 @@
+package app.search;
+
+import app.model.Post;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One query across several backends, fetched page by page. Keeps each backend's cursor
+ * so the next page continues where the last one stopped instead of re-running the query.
+ * Not tied to any UI; callers decide when to ask for more (e.g. when the user nears the end of the list).
+ *
+ * Backends are keyed by {@link SearchBackend#sourceId()}, so several instances of the same
+ * platform can take part. Every page passes through a {@link Deduplicator}, so a post already
+ * delivered (through another instance, or cross-posted to the other platform) is not shown twice,
+ * and is then sorted by the session's {@link Ranking} so callers can merge it into earlier results.
+ * Everything downloaded is also added to the shared {@link LocalIndex} and, for typeahead,
+ * to the {@link SuggestionService}.
+ */
+public class SearchSession {
+
+    private final String query;
+    private final String sort;
+    private final Map<String, SearchBackend> backends = new LinkedHashMap<>();
+    // source id -> cursor for its next page; absent before the first page
+    private final Map<String, String> cursors = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> exhausted = new ConcurrentHashMap<>();
+    private final Deduplicator dedup = new Deduplicator();
+    private final Ranking ranking;
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final Duration deadline;
+    private volatile int pagesLoaded;
+    private volatile boolean cancelled;
+    // thread blocked in loadNextPage, interrupted by cancel(); guarded by this
+    private Thread runner;
+
+    public SearchSession(String query, String sort, List<SearchBackend> backends) {
+        this(query, sort, backends, SearchDispatcher.DEFAULT_DEADLINE);
+    }
+
+    public SearchSession(String query, String sort, List<SearchBackend> backends, Duration deadline) {
+        this.query = query;
+        this.sort = sort;
+        this.deadline = deadline;
+        this.ranking = new Ranking(sort, query);
+        for (SearchBackend b : backends) this.backends.put(b.sourceId(), b);
+    }
+
+    public String query() { return query; }
+    public String sort() { return sort; }
+    public int pagesLoaded() { return pagesLoaded; }
+    public Ranking ranking() { return ranking; }
+    public boolean isLoading() { return loading.get(); }
+    public boolean isCancelled() { return cancelled; }
+
+    /**
+     * Abandons the session: a page being fetched is interrupted (which aborts its HTTP
+     * requests) and no further pages are loaded.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            if (runner != null) runner.interrupt();
+        }
+    }
+
+    /** True while at least one backend may still return results. */
+    public boolean hasMore() {
+        if (cancelled) return false;
+        for (String source : backends.keySet()) {
+            if (!exhausted.containsKey(source)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fetches the next page from every backend that still has results, in parallel.
+     * Each backend's page is handed to {@code onPage} as soon as it arrives, keyed by the
+     * backend's source id, without posts an earlier page already delivered, and in ranking order.
+     * A backend that fails or times out is not retried within this session.
+     * Blocking; call from a background thread. Throws InterruptedException if the session
+     * is cancelled meanwhile.
+     *
+     * @return false if a page was already being fetched or nothing is left to fetch
+     */
+    public boolean loadNextPage(Consumer<SearchDispatcher.Outcome<SearchPage>> onPage) throws InterruptedException {
+        if (!hasMore() || !loading.compareAndSet(false, true)) return false;
+        synchronized (this) {
+            runner = Thread.currentThread();
+        }
+        try {
+            if (cancelled) return false;
+            Map<String, Callable<SearchPage>> calls = new LinkedHashMap<>();
+            for (Map.Entry<String, SearchBackend> e : new ArrayList<>(backends.entrySet())) {
+                String source = e.getKey();
+                if (exhausted.containsKey(source)) continue;
+                String cursor = cursors.get(source);
+                calls.put(source, () -> e.getValue().fetch(query, sort, cursor));
+            }
+            SearchDispatcher.runAll(calls, deadline, outcome -> {
+                // backends cut short by cancel() report failures nobody is waiting for
+                if (cancelled) return;
+                String source = outcome.platform();
+                if (outcome.isSuccess() && outcome.value().hasMore()) {
+                    cursors.put(source, outcome.value().nextCursor());
+                } else {
+                    exhausted.put(source, Boolean.TRUE);
+                }
+                onPage.accept(outcome.isSuccess() ? prepare(outcome) : outcome);
+            });
+            pagesLoaded++;
+            return true;
+        } finally {
+            synchronized (this) {
+                runner = null;
+            }
+            loading.set(false);
+        }
+    }
+
+    /** Posts dropped as duplicates so far. */
+    public long duplicatesDropped() {
+        return dedup.dropped();
+    }
+
+    /**
+     * Registers posts found elsewhere (e.g. local index hits) as already shown and returns
+     * the new ones in ranking order. Remote copies of the same posts are then skipped.
+     */
+    public List<Post> seed(List<Post> posts) {
+        return ranking.sort(dedup.filter(posts));
+    }
+
+    private SearchDispatcher.Outcome<SearchPage> prepare(SearchDispatcher.Outcome<SearchPage> outcome) {
+        SearchPage page = outcome.value();
+        LocalIndex.shared().addAll(page.posts());
+        SuggestionService.shared().ingest(page.posts());
+        List<Post> fresh = ranking.sort(dedup.filter(page.posts()));
+        return new SearchDispatcher.Outcome<>(outcome.platform(), new SearchPage(fresh, page.nextCursor()),
+                null, false, outcome.elapsedMillis());
+    }
+}
@@ -0,0 +1,150 @@
+package app.search;
+
+import app.model.Post;
+import app.net.HttpTransport;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Suggestions for the word being typed when it starts with "@" (handles) or "#" (hashtags).
+ *
+ * {@link #local} answers from prefix indexes of every handle and tag seen in search results
+ * and in earlier suggestions, without a request. {@link #remote} asks the platforms'
+ * typeahead endpoints with a small limit (Bluesky's public actor typeahead; accounts and
+ * hashtags on the user's Mastodon instance) and caches the answer per prefix, so a prefix
+ * is fetched at most once every few minutes however often it is typed.
+ */
+public final class SuggestionService {
+
+    private static final SuggestionService SHARED = new SuggestionService();
+
+    private static final int REMOTE_LIMIT = 8;
+    private static final String BSKY_TYPEAHEAD = "https://public.api.bsky.app/xrpc/app.bsky.actor.searchActorsTypeahead";
+    private static final Pattern HASHTAG = Pattern.compile("#([\\p{L}\\p{N}_]+)");
+
+    private final PrefixIndex handles = new PrefixIndex(50_000);
+    private final PrefixIndex tags = new PrefixIndex(20_000);
+    private final TtlLruCache<String, List<String>> remoteCache = new TtlLruCache<>(Duration.ofMinutes(10), 500);
+
+    public static SuggestionService shared() {
+        return SHARED;
+    }
+
+    /** Remembers the authors and hashtags of downloaded posts. */
+    public void ingest(Collection<Post> posts) {
+        for (Post p : posts) {
+            if (p.handle() != null && p.handle().length() > 1) handles.add(p.handle());
+            Matcher m = HASHTAG.matcher(p.text());
+            while (m.find()) tags.add("#" + m.group(1));
+        }
+    }
+
+    /** Completions of {@code token} ("@ali", "#jav") known locally; empty for other tokens. */
+    public List<String> local(String token, int limit) {
+        if (!isCompletable(token)) return List.of();
+        return token.startsWith("@") ? handles.complete(token, limit) : tags.complete(token, limit);
+    }
+
+    /**
+     * Completions of {@code token} from the platforms, served from cache when the same
+     * prefix was asked recently. Never fails; errors yield an empty list.
+     *
+     * @param mastodonInstance the user's instance, or null to skip Mastodon
+     */
+    public CompletableFuture<List<String>> remote(String token, String mastodonInstance, String mastodonToken) {
+        if (!isCompletable(token)) return CompletableFuture.completedFuture(List.of());
+        String key = token.toLowerCase(Locale.ROOT) + "|" + mastodonInstance;
+        List<String> cached = remoteCache.get(key);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        String q = token.substring(1);
+        List<CompletableFuture<List<String>>> lookups = new ArrayList<>();
+        boolean handle = token.startsWith("@");
+        if (handle) lookups.add(blueskyActors(q));
+        if (mastodonInstance != null && !mastodonInstance.isBlank() && mastodonToken != null && !mastodonToken.isBlank()) {
+            lookups.add(mastodonSearch(q, handle ? "accounts" : "hashtags", mastodonInstance, mastodonToken));
+        }
+
+        return CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)).thenApply(v -> {
+            Set<String> merged = new LinkedHashSet<>();
+            for (CompletableFuture<List<String>> f : lookups) merged.addAll(f.join());
+            List<String> out = List.copyOf(merged);
+            PrefixIndex index = handle ? handles : tags;
+            for (String s : out) index.add(s);
+            remoteCache.put(key, out);
+            return out;
+        });
+    }
+
+    private static boolean isCompletable(String token) {
+        return token != null && token.length() >= 2 && (token.startsWith("@") || token.startsWith("#"));
+    }
+
+    private CompletableFuture<List<String>> blueskyActors(String q) {
+        HttpRequest req = HttpRequest.newBuilder()
+                .uri(URI.create(BSKY_TYPEAHEAD + "?q=" + BlueskySearchBackend.enc(q) + "&limit=" + REMOTE_LIMIT))
+                .header("Accept", "application/json")
+                .timeout(HttpTransport.requestTimeout())
+                .GET().build();
+        return fetch(req, body -> {
+            List<String> out = new ArrayList<>();
+            JSONArray actors = new JSONObject(body).optJSONArray("actors");
+            if (actors != null) {
+                for (int i = 0; i < actors.length(); i++) {
+                    String h = actors.getJSONObject(i).optString("handle", "");
+                    if (!h.isEmpty()) out.add("@" + h);
+                }
+            }
+            return out;
+        });
+    }
+
+    private CompletableFuture<List<String>> mastodonSearch(String q, String type, String instance, String token) {
+        String host = MastodonSearchBackend.normalizeInstance(instance);
+        HttpRequest req = HttpRequest.newBuilder()
+                .uri(URI.create("https://" + host + "/api/v2/search?type=" + type + "&q=" + BlueskySearchBackend.enc(q)
+                        + "&limit=" + REMOTE_LIMIT))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .timeout(HttpTransport.requestTimeout())
+                .GET().build();
+        return fetch(req, body -> {
+            List<String> out = new ArrayList<>();
+            JSONObject json = new JSONObject(body);
+            JSONArray arr = json.optJSONArray(type);
+            if (arr != null) {
+                for (int i = 0; i < arr.length(); i++) {
+                    JSONObject o = arr.getJSONObject(i);
+                    String v = "accounts".equals(type) ? o.optString("acct", "") : o.optString("name", "");
+                    if (!v.isEmpty()) out.add(("accounts".equals(type) ? "@" : "#") + v);
+                }
+            }
+            return out;
+        });
+    }
+
+    private static CompletableFuture<List<String>> fetch(HttpRequest req, Function<String, List<String>> parse) {
+        return HttpTransport.client()
+                .sendAsync(req, HttpResponse.BodyHandlers.ofString())
+                .thenApply(resp -> resp.statusCode() == 200 ? parse.apply(resp.body()) : List.<String>of())
+                .exceptionally(e -> {
+                    System.err.println("[Typeahead] " + req.uri().getHost() + " failed: " + e.getMessage());
+                    return List.of();
+                });
+    }
+}
@@ -0,0 +1,79 @@
+package app.search;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small thread-safe cache with a time-to-live per entry and least-recently-used eviction
+ * once {@code maxEntries} is exceeded. Keeps hit/miss/eviction counters for diagnostics.
+ */
+public class TtlLruCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtNanos) {}
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public TtlLruCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        // access order: get() moves an entry to the tail, so the head is least recently used
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlLruCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Cached value, or null when absent or expired. */
+    public synchronized V get(K key) {
+        Entry<V> e = map.get(key);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - e.expiresAtNanos > 0) {
+            map.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return e.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized void invalidate(K key) {
+        map.remove(key);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long hits() { return hits; }
+    public synchronized long misses() { return misses; }
+    public synchronized long evictions() { return evictions; }
+
+    @Override
+    public synchronized String toString() {
+        return "size=" + map.size() + " hits=" + hits + " misses=" + misses + " evictions=" + evictions;
+    }
+}
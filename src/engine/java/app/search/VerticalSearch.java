@@ -0,0 +1,202 @@
+package app.search;
+
+import app.model.Hashtag;
+import app.model.Profile;
+import app.net.CachedHttp;
+import app.net.HttpTransport;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * The non-post search verticals: accounts ("Profiles") and hashtags. Each is fetched only
+ * when asked for, from every configured platform in parallel, and cached per query for
+ * the same time as post pages. Only answers with at least one remote source that succeeded
+ * are cached, so a transient error is not remembered as "nothing found".
+ *
+ * Profiles come from Bluesky's public actor search and the user's Mastodon instance.
+ * Hashtags come from the Mastodon instance (with recent usage) plus tags seen locally in
+ * results; Bluesky has no tag search endpoint.
+ */
+public final class VerticalSearch {
+
+    private static final String BSKY_ACTORS = "https://public.api.bsky.app/xrpc/app.bsky.actor.searchActors";
+
+    private static final TtlLruCache<String, List<Profile>> PROFILES = new TtlLruCache<>(CachingSearchBackend.TTL, 100);
+    private static final TtlLruCache<String, List<Hashtag>> HASHTAGS = new TtlLruCache<>(CachingSearchBackend.TTL, 100);
+
+    private final boolean bluesky;
+    private final String mastodonInstance;
+    private final String mastodonToken;
+
+    /**
+     * @param bluesky include Bluesky (its actor search needs no login)
+     * @param mastodonInstance the user's instance, or null to leave Mastodon out
+     */
+    public VerticalSearch(boolean bluesky, String mastodonInstance, String mastodonToken) {
+        this.bluesky = bluesky;
+        boolean mastodon = mastodonInstance != null && !mastodonInstance.isBlank()
+                && mastodonToken != null && !mastodonToken.isBlank();
+        this.mastodonInstance = mastodon ? MastodonSearchBackend.normalizeInstance(mastodonInstance) : null;
+        this.mastodonToken = mastodon ? mastodonToken : null;
+    }
+
+    /** Accounts matching {@code query}, platforms interleaved. Blocking. */
+    public List<Profile> profiles(String query, int limit) throws InterruptedException {
+        String key = key(query, limit);
+        List<Profile> cached = PROFILES.get(key);
+        if (cached != null) return cached;
+
+        Map<String, Callable<List<Profile>>> calls = new LinkedHashMap<>();
+        if (bluesky) calls.put("bluesky", () -> blueskyProfiles(query, limit));
+        if (mastodonInstance != null) calls.put("mastodon", () -> mastodonProfiles(query, limit));
+
+        List<List<Profile>> perPlatform = new ArrayList<>();
+        boolean anySucceeded = false;
+        for (SearchDispatcher.Outcome<List<Profile>> o : SearchDispatcher.runAll(calls, SearchDispatcher.DEFAULT_DEADLINE)) {
+            if (o.isSuccess()) {
+                perPlatform.add(o.value());
+                anySucceeded = true;
+            } else {
+                System.err.println("[Profiles] " + o.platform() + " failed: " + (o.timedOut() ? "timed out" : o.error().getMessage()));
+            }
+        }
+        List<Profile> out = List.copyOf(interleave(perPlatform, limit));
+        if (anySucceeded) PROFILES.put(key, out);
+        return out;
+    }
+
+    /** Hashtags matching {@code query}, most used first. Blocking. */
+    public List<Hashtag> hashtags(String query, int limit) throws InterruptedException {
+        String tag = MastodonSearchBackend.toHashtag(query);
+        if (tag.isEmpty()) return List.of();
+        String key = key(tag, limit);
+        List<Hashtag> cached = HASHTAGS.get(key);
+        if (cached != null) return cached;
+
+        Map<String, Hashtag> byName = new LinkedHashMap<>();
+        // the local tags alone are cheap to look up again and grow as results arrive
+        boolean remoteSucceeded = false;
+        if (mastodonInstance != null) {
+            try {
+                for (Hashtag h : mastodonHashtags(tag, limit)) byName.putIfAbsent(h.name().toLowerCase(Locale.ROOT), h);
+                remoteSucceeded = true;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                System.err.println("[Hashtags] mastodon failed: " + e.getMessage());
+            }
+        }
+        for (String local : SuggestionService.shared().local("#" + tag, limit)) {
+            String name = local.substring(1);
+            byName.putIfAbsent(name.toLowerCase(Locale.ROOT), new Hashtag(name, null, null));
+        }
+
+        List<Hashtag> out = new ArrayList<>(byName.values());
+        out.sort((a, b) -> Integer.compare(b.recentUses() == null ? -1 : b.recentUses(),
+                                           a.recentUses() == null ? -1 : a.recentUses()));
+        out = List.copyOf(out.size() > limit ? out.subList(0, limit) : out);
+        if (remoteSucceeded) HASHTAGS.put(key, out);
+        return out;
+    }
+
+    private String key(String query, int limit) {
+        return CachingSearchBackend.normalizeQuery(query) + "|" + limit + "|" + bluesky + "|" + mastodonInstance;
+    }
+
+    private static List<Profile> interleave(List<List<Profile>> lists, int limit) {
+        List<Profile> out = new ArrayList<>();
+        for (int i = 0; out.size() < limit; i++) {
+            boolean any = false;
+            for (List<Profile> l : lists) {
+                if (i < l.size() && out.size() < limit) {
+                    out.add(l.get(i));
+                    any = true;
+                }
+            }
+            if (!any) break;
+        }
+        return out;
+    }
+
+    private List<Profile> blueskyProfiles(String query, int limit) throws Exception {
+        String body = get(BSKY_ACTORS + "?q=" + BlueskySearchBackend.enc(query) + "&limit=" + limit, false);
+        List<Profile> out = new ArrayList<>();
+        JSONArray actors = new JSONObject(body).optJSONArray("actors");
+        if (actors == null) return out;
+        for (int i = 0; i < actors.length(); i++) {
+            JSONObject a = actors.getJSONObject(i);
+            String handle = a.optString("handle", "");
+            out.add(new Profile("bluesky", "@" + handle,
+                    a.optString("displayName", ""),
+                    a.optString("avatar", null),
+                    a.optString("description", ""),
+                    a.has("followersCount") ? a.optInt("followersCount") : null,
+                    "https://bsky.app/profile/" + handle));
+        }
+        return out;
+    }
+
+    private List<Profile> mastodonProfiles(String query, int limit) throws Exception {
+        String body = get("https://" + mastodonInstance + "/api/v2/search?type=accounts&q="
+                + BlueskySearchBackend.enc(query) + "&limit=" + limit, true);
+        List<Profile> out = new ArrayList<>();
+        JSONArray accounts = new JSONObject(body).optJSONArray("accounts");
+        if (accounts == null) return out;
+        for (int i = 0; i < accounts.length(); i++) {
+            JSONObject a = accounts.getJSONObject(i);
+            out.add(new Profile("mastodon", "@" + a.optString("acct", ""),
+                    a.optString("display_name", ""),
+                    a.optString("avatar", null),
+                    MastodonPostParser.stripHtml(a.optString("note", "")),
+                    a.has("followers_count") ? a.optInt("followers_count") : null,
+                    a.optString("url", null)));
+        }
+        return out;
+    }
+
+    private List<Hashtag> mastodonHashtags(String tag, int limit) throws Exception {
+        String body = get("https://" + mastodonInstance + "/api/v2/search?type=hashtags&q="
+                + BlueskySearchBackend.enc(tag) + "&limit=" + limit, true);
+        List<Hashtag> out = new ArrayList<>();
+        JSONArray tags = new JSONObject(body).optJSONArray("hashtags");
+        if (tags == null) return out;
+        for (int i = 0; i < tags.length(); i++) {
+            JSONObject t = tags.getJSONObject(i);
+            // history: one entry per recent day, counts as strings
+            Integer uses = null;
+            JSONArray history = t.optJSONArray("history");
+            if (history != null) {
+                int sum = 0;
+                for (int d = 0; d < history.length(); d++) {
+                    sum += Integer.parseInt(history.getJSONObject(d).optString("uses", "0"));
+                }
+                uses = sum;
+            }
+            out.add(new Hashtag(t.optString("name", ""), uses, t.optString("url", null)));
+        }
+        return out;
+    }
+
+    private String get(String url, boolean mastodonAuth) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .GET()
+                .header("Accept", "application/json")
+                .timeout(HttpTransport.requestTimeout());
+        if (mastodonAuth) b.header("Authorization", "Bearer " + mastodonToken);
+        var resp = CachedHttp.send(b.build(), CachingSearchBackend.TTL);
+        if (resp.statusCode() / 100 != 2) {
+            throw new RuntimeException("HTTP " + resp.statusCode() + " " + BlueskySearchBackend.shortBody(resp.body()));
+        }
+        return resp.body();
+    }
+}
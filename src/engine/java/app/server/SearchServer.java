@@ -0,0 +1,292 @@
+package app.server;
+
+import app.model.Post;
+import app.search.PostJson;
+import app.search.SearchDispatcher;
+import app.search.SearchEngine;
+import app.search.SearchPage;
+import app.search.SearchRequest;
+import app.search.SearchSession;
+import app.search.TtlLruCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the search engine over HTTP on the loopback interface, so other local tools can
+ * search without the desktop app. All clients share one process: the HTTP connection pool,
+ * the result caches and the configured accounts.
+ *
+ * GET /search?q=...&sort=latest|top&platforms=bluesky,mastodon,federated
+ *     (platforms defaults to every platform with an account, else public Mastodon instances)
+ * GET /search?cursor=...   (next page of an earlier search)
+ * GET /health
+ *
+ * Search responses are streamed as JSON lines (application/x-ndjson) while the backends
+ * answer: a {"type":"post"} line per post, a {"type":"source"} line per backend with its
+ * count or error, and a final {"type":"end"} line carrying the cursor for the next page
+ * (absent when nothing is left). A cursor names a page of a session kept on the server for
+ * a while (searchapp.server.sessionTtlSeconds, default 600); reusing an old cursor is a 409.
+ * Each request runs on its own virtual thread.
+ *
+ * Only local clients that know the per-run {@link #token()} get an answer: the token is
+ * printed at start and must be sent as "Authorization: Bearer <token>" or as a token query
+ * parameter (401 otherwise), and the Host header must name the loopback address and port
+ * (403 otherwise), so web pages open in a browser cannot reach the server through DNS
+ * rebinding or by guessing the port.
+ */
+public class SearchServer {
+
+    private static final Duration SESSION_TTL =
+            Duration.ofSeconds(Long.getLong("searchapp.server.sessionTtlSeconds", 600));
+    private static final int MAX_SESSIONS = Integer.getInteger("searchapp.server.maxSessions", 1000);
+
+    private final int port;
+    private final SearchEngine.Accounts accounts;
+    private final TtlLruCache<String, SearchSession> sessions = new TtlLruCache<>(SESSION_TTL, MAX_SESSIONS);
+    private final SecureRandom random = new SecureRandom();
+    private final String token = nextId();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public SearchServer(int port, SearchEngine.Accounts accounts) {
+        this.port = port;
+        this.accounts = accounts;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/search", exchange -> handle(exchange, this::search));
+        server.createContext("/health", exchange -> handle(exchange, ex ->
+                sendJson(ex, 200, new JSONObject().put("ok", true).put("sessions", sessions.size()))));
+        server.start();
+        System.out.println("[SearchServer] listening on http://127.0.0.1:" + port() + " (token " + token + ")");
+    }
+
+    /** Secret clients must present with every request; new for each server instance. */
+    public String token() {
+        return token;
+    }
+
+    /** The bound port; differs from the requested one when that was 0. */
+    public int port() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws Exception;
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, error("Only GET is supported"));
+                return;
+            }
+            if (!isLocalHost(exchange.getRequestHeaders().getFirst("Host"))) {
+                sendJson(exchange, 403, error("Forbidden host"));
+                return;
+            }
+            if (!hasToken(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                sendJson(exchange, 401, error("Missing or wrong token"));
+                return;
+            }
+            handler.handle(exchange);
+        } catch (Exception e) {
+            // headers may already be out on a streamed response; then the client just sees it end
+            System.err.println("[SearchServer] " + exchange.getRequestURI() + ": " + e);
+            try {
+                sendJson(exchange, 500, error(String.valueOf(e.getMessage())));
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    private boolean isLocalHost(String host) {
+        if (host == null) return false;
+        String h = host.toLowerCase(Locale.ROOT);
+        return h.equals("127.0.0.1:" + port()) || h.equals("localhost:" + port());
+    }
+
+    private boolean hasToken(HttpExchange exchange) {
+        String presented;
+        String auth = exchange.getRequestHeaders().getFirst("Authorization");
+        if (auth != null && auth.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            presented = auth.substring(7).trim();
+        } else {
+            presented = parseQuery(exchange.getRequestURI().getRawQuery()).get("token");
+        }
+        return presented != null && MessageDigest.isEqual(
+                presented.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void search(HttpExchange exchange) throws Exception {
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        SearchSession session;
+        String id;
+        String cursor = params.get("cursor");
+        if (cursor != null) {
+            int colon = cursor.lastIndexOf(':');
+            id = colon < 0 ? cursor : cursor.substring(0, colon);
+            session = sessions.get(id);
+            if (session == null) {
+                sendJson(exchange, 404, error("Unknown or expired cursor"));
+                return;
+            }
+            if (colon < 0 || !cursor.substring(colon + 1).equals(String.valueOf(session.pagesLoaded()))
+                    || session.isLoading()) {
+                sendJson(exchange, 409, error("Cursor already used"));
+                return;
+            }
+        } else {
+            String q = params.getOrDefault("q", "").trim();
+            if (q.isEmpty()) {
+                sendJson(exchange, 400, error("Missing q"));
+                return;
+            }
+            List<String> problems = new ArrayList<>();
+            session = SearchEngine.open(request(q, params), accounts, problems::add);
+            if (!session.hasMore()) {
+                sendJson(exchange, 400, error(problems.isEmpty()
+                        ? "No platform selected; use platforms=bluesky,mastodon,federated"
+                        : String.join(" ", problems)));
+                return;
+            }
+            id = nextId();
+            sessions.put(id, session);
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        String sessionId = id;
+        SearchSession current = session;
+        boolean loaded = session.loadNextPage(outcome -> {
+            try {
+                writeOutcome(out, outcome);
+            } catch (UncheckedIOException e) {
+                // client went away; nobody will ask for the next page
+                sessions.invalidate(sessionId);
+                current.cancel();
+            }
+        });
+        if (!loaded) {
+            // another request took this page meanwhile
+            writeLine(out, error("Cursor already used"));
+        }
+        JSONObject end = new JSONObject().put("type", "end").put("query", session.query());
+        if (session.hasMore()) end.put("cursor", id + ":" + session.pagesLoaded());
+        writeLine(out, end);
+    }
+
+    private String nextId() {
+        byte[] b = new byte[12];
+        random.nextBytes(b);
+        return HexFormat.of().formatHex(b);
+    }
+
+    /**
+     * Without a platforms parameter: every platform with an account, else public Mastodon
+     * instances (searchapp.mastodon.instances, else a built-in list; see {@link app.search.FederatedMastodon}).
+     */
+    private SearchRequest request(String q, Map<String, String> params) {
+        String platforms = params.getOrDefault("platforms", "").toLowerCase(Locale.ROOT);
+        boolean bluesky, mastodon, federated;
+        if (platforms.isBlank()) {
+            bluesky = accounts.blueskyToken() != null;
+            mastodon = accounts.mastodonToken() != null && accounts.mastodonInstance() != null;
+            federated = !bluesky && !mastodon;
+        } else {
+            List<String> list = List.of(platforms.split(","));
+            bluesky = list.contains("bluesky");
+            mastodon = list.contains("mastodon");
+            federated = list.contains("federated");
+        }
+        return new SearchRequest(q, params.get("sort"), bluesky, mastodon, federated);
+    }
+
+    private static void writeOutcome(OutputStream out, SearchDispatcher.Outcome<SearchPage> outcome) {
+        JSONObject source = new JSONObject().put("type", "source").put("source", outcome.platform())
+                .put("elapsedMs", outcome.elapsedMillis());
+        if (outcome.isSuccess()) {
+            List<Post> posts = outcome.value().posts();
+            StringBuilder lines = new StringBuilder();
+            for (Post p : posts) {
+                lines.append(new JSONObject().put("type", "post").put("source", outcome.platform())
+                        .put("post", PostJson.toJson(p))).append('\n');
+            }
+            source.put("count", posts.size());
+            lines.append(source).append('\n');
+            write(out, lines.toString());
+        } else {
+            source.put("error", outcome.timedOut() ? "timed out" : String.valueOf(outcome.error()));
+            writeLine(out, source);
+        }
+    }
+
+    private static void writeLine(OutputStream out, JSONObject line) {
+        write(out, line + "\n");
+    }
+
+    // backends report from their own threads; one whole chunk at a time keeps lines intact
+    private static void write(OutputStream out, String text) {
+        synchronized (out) {
+            try {
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, JSONObject body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static JSONObject error(String message) {
+        return new JSONObject().put("type", "error").put("error", message);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) return params;
+        for (String pair : query.split("&")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length == 2) {
+                params.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8), URLDecoder.decode(kv[1], StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,221 @@
+package searchapp;
+
+import app.net.AppDirs;
+import app.net.SecureStore;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Signs DPoP proofs (RFC 9449) with one P-256 key for the lifetime of the install.
+ *
+ * The JWS header (typ, alg and the public JWK) is serialized once; a proof only encodes
+ * its claims and signs them with an initialized {@link Signature} borrowed from a small
+ * shared pool, so nothing is parsed or rebuilt per request. (A per-thread signer would be
+ * rebuilt for every request made from a fresh virtual thread.) With presigning on (searchapp.dpop.presign, default true) each
+ * method/URL/nonce used gets a couple of proofs signed ahead on a background thread, so
+ * the next request to it only takes one from the queue. Presigned proofs older than
+ * {@link #MAX_PRESIGNED_AGE_MS} are dropped, as servers reject stale iat values.
+ *
+ * The key is kept in the {@link SecureStore} (searchapp.dpop.persistKey, default true),
+ * so tokens bound to it stay usable across restarts and no key is generated at startup.
+ */
+public final class DPoPProofFactory {
+
+    static final long MAX_PRESIGNED_AGE_MS = 10_000;
+    private static final int PRESIGNED_PER_TARGET = 2;
+    private static final boolean PRESIGN = Boolean.parseBoolean(System.getProperty("searchapp.dpop.presign", "true"));
+    private static final boolean PERSIST_KEY = Boolean.parseBoolean(System.getProperty("searchapp.dpop.persistKey", "true"));
+    private static final String KEY_NAME = "dpop-key";
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+
+    private static volatile DPoPProofFactory shared;
+
+    private record Target(String method, String htu, String nonce) {}
+    private record Presigned(String proof, long signedAtMillis) {}
+
+    private final ECKey key;
+    private final String encodedHeader;
+    private final PrivateKey privateKey;
+    // idle signers, at most one per core; a request finding none creates one
+    private final BlockingQueue<Signature> signers =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+    private final boolean presign;
+    private final Map<Target, Deque<Presigned>> presigned = new ConcurrentHashMap<>();
+    private final Map<Target, Boolean> refilling = new ConcurrentHashMap<>();
+    private final ExecutorService background;
+
+    DPoPProofFactory(ECKey key, boolean presign) {
+        try {
+            this.key = key;
+            this.privateKey = key.toECPrivateKey();
+            this.encodedHeader = new JWSHeader.Builder(JWSAlgorithm.ES256)
+                    .type(new JOSEObjectType("dpop+jwt"))
+                    .jwk(key.toPublicJWK())
+                    .build()
+                    .toBase64URL()
+                    .toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid DPoP key", e);
+        }
+        this.presign = presign;
+        this.background = presign
+                ? Executors.newSingleThreadExecutor(Thread.ofVirtual().name("dpop-presign").factory())
+                : null;
+    }
+
+    /** Factory for the app's persistent key, loaded (or generated) on first use. */
+    public static DPoPProofFactory shared() {
+        DPoPProofFactory f = shared;
+        if (f == null) {
+            synchronized (DPoPProofFactory.class) {
+                f = shared;
+                if (f == null) shared = f = new DPoPProofFactory(loadOrCreateKey(), PRESIGN);
+            }
+        }
+        return f;
+    }
+
+    public ECKey publicJWK() {
+        return key.toPublicJWK();
+    }
+
+    /**
+     * A proof for {@code method} on {@code url}. Query and fragment are not part of the
+     * proof's htu, so requests differing only in their query share presigned proofs.
+     *
+     * @param nonce server-provided nonce, or null
+     */
+    public String proof(String method, String url, String nonce) {
+        Target target = new Target(method.toUpperCase(), htu(url), nonce == null || nonce.isEmpty() ? null : nonce);
+        if (!presign) return sign(target);
+        String proof = takePresigned(target);
+        if (proof == null) proof = sign(target);
+        refill(target);
+        return proof;
+    }
+
+    String sign(Target target) {
+        JSONObject claims = new JSONObject()
+                .put("jti", UUID.randomUUID().toString())
+                .put("htm", target.method())
+                .put("htu", target.htu())
+                .put("iat", System.currentTimeMillis() / 1000);
+        if (target.nonce() != null) claims.put("nonce", target.nonce());
+        String signingInput = encodedHeader + "." + B64.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            Signature signer = signers.poll();
+            if (signer == null) signer = newSigner();
+            signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            String signature = B64.encodeToString(signer.sign());
+            // sign() resets the signer for the next input; only returned after a clean use
+            signers.offer(signer);
+            return signingInput + "." + signature;
+        } catch (Exception e) {
+            throw new RuntimeException("Error creating DPoP proof", e);
+        }
+    }
+
+    private String takePresigned(Target target) {
+        Deque<Presigned> queue = presigned.get(target);
+        if (queue == null) return null;
+        long now = System.currentTimeMillis();
+        Presigned p;
+        while ((p = queue.pollFirst()) != null) {
+            if (now - p.signedAtMillis() < MAX_PRESIGNED_AGE_MS) return p.proof();
+        }
+        return null;
+    }
+
+    private void refill(Target target) {
+        if (refilling.putIfAbsent(target, Boolean.TRUE) != null) return;
+        // a new nonce makes the proofs for the old one useless
+        presigned.keySet().removeIf(t -> t.method().equals(target.method()) && t.htu().equals(target.htu())
+                && !Objects.equals(t.nonce(), target.nonce()));
+        background.execute(() -> {
+            try {
+                Deque<Presigned> queue = presigned.computeIfAbsent(target, t -> new ConcurrentLinkedDeque<>());
+                while (queue.size() < PRESIGNED_PER_TARGET) {
+                    queue.addLast(new Presigned(sign(target), System.currentTimeMillis()));
+                }
+            } finally {
+                refilling.remove(target);
+            }
+        });
+    }
+
+    private Signature newSigner() {
+        try {
+            // r||s encoding, as JWS expects, rather than DER
+            Signature s = Signature.getInstance("SHA256withECDSAinP1363Format");
+            s.initSign(privateKey);
+            return s;
+        } catch (Exception e) {
+            throw new IllegalStateException("ES256 not available", e);
+        }
+    }
+
+    static String htu(String url) {
+        URI u = URI.create(url);
+        return u.getScheme() + "://" + u.getRawAuthority() + (u.getRawPath() == null ? "" : u.getRawPath());
+    }
+
+    // ---- key storage ----
+
+    static ECKey generateKey() {
+        try {
+            return new ECKeyGenerator(Curve.P_256).keyID(UUID.randomUUID().toString()).generate();
+        } catch (Exception e) {
+            throw new RuntimeException("DPoP init failed", e);
+        }
+    }
+
+    private static ECKey loadOrCreateKey() {
+        if (!PERSIST_KEY) return generateKey();
+        SecureStore store = SecureStore.shared();
+        JSONObject stored = store.read(KEY_NAME);
+        try {
+            if (stored != null) return ECKey.parse(stored.toString());
+            // key kept in plain text by earlier versions; move it into the store
+            Path legacy = AppDirs.configDir().resolve("dpop-key.jwk");
+            if (Files.exists(legacy)) {
+                ECKey key = ECKey.parse(Files.readString(legacy, StandardCharsets.UTF_8));
+                store.write(KEY_NAME, new JSONObject(key.toJSONString()));
+                Files.delete(legacy);
+                return key;
+            }
+        } catch (Exception e) {
+            System.err.println("[DPoP] could not load the stored key, generating a new one: " + e.getMessage());
+        }
+        ECKey key = generateKey();
+        try {
+            store.write(KEY_NAME, new JSONObject(key.toJSONString()));
+            System.out.println("✅ DPoP keypair generated and stored");
+        } catch (Exception e) {
+            System.err.println("[DPoP] could not store key: " + e.getMessage());
+        }
+        return key;
+    }
+}
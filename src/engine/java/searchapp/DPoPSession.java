@@ -0,0 +1,104 @@
+package searchapp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Sends DPoP-bound requests, remembering the latest DPoP-Nonce each server handed out.
+ *
+ * Authorization and resource servers require a server-issued nonce in the proof and
+ * reject proofs without one (400 or 401 "use_dpop_nonce"), returning a fresh nonce.
+ * Nonces are kept per origin and updated from every response that carries one, so
+ * requests normally go out with a valid nonce and cost one round trip. A request is
+ * retried once, and only when the server rejects the nonce and offers a different one.
+ */
+public final class DPoPSession {
+
+    private static final DPoPSession SHARED = new DPoPSession();
+
+    // origin (scheme://host[:port]) -> latest nonce from that server
+    private final Map<String, String> nonces = new ConcurrentHashMap<>();
+
+    public static DPoPSession shared() {
+        return SHARED;
+    }
+
+    /** A proof for {@code method} and {@code url}, carrying the origin's last known nonce. */
+    public String proof(String method, String url) {
+        return DPoPUtil.buildDPoP(method, url, nonces.get(origin(url)));
+    }
+
+    /** The last nonce seen from {@code url}'s origin, or null. */
+    public String nonce(String url) {
+        return nonces.get(origin(url));
+    }
+
+    /** Remembers the nonce a response carries, if any. */
+    public void observe(String url, HttpResponse<?> response) {
+        response.headers().firstValue("DPoP-Nonce")
+                .filter(n -> !n.isBlank())
+                .ifPresent(n -> nonces.put(origin(url), n));
+    }
+
+    /**
+     * Sends the request built by {@code request} (given the DPoP proof header value),
+     * retrying once with the new nonce when the server asks for one.
+     */
+    public HttpResponse<String> send(HttpClient client, String method, String url,
+                                     Function<String, HttpRequest> request) throws Exception {
+        String used = nonce(url);
+        HttpResponse<String> resp = client.send(request.apply(proof(method, url)), HttpResponse.BodyHandlers.ofString());
+        observe(url, resp);
+        if (!needsRetry(url, used, resp)) return resp;
+        resp = client.send(request.apply(proof(method, url)), HttpResponse.BodyHandlers.ofString());
+        observe(url, resp);
+        return resp;
+    }
+
+    /** Asynchronous {@link #send}. */
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpClient client, String method, String url,
+                                                             Function<String, HttpRequest> request) {
+        String used = nonce(url);
+        return client.sendAsync(request.apply(proof(method, url)), HttpResponse.BodyHandlers.ofString())
+                .thenCompose(resp -> {
+                    observe(url, resp);
+                    if (!needsRetry(url, used, resp)) return CompletableFuture.completedFuture(resp);
+                    return client.sendAsync(request.apply(proof(method, url)), HttpResponse.BodyHandlers.ofString())
+                            .thenApply(r -> {
+                                observe(url, r);
+                                return r;
+                            });
+                });
+    }
+
+    // a nonce rejection that came with a nonce other than the one just used
+    private boolean needsRetry(String url, String used, HttpResponse<String> resp) {
+        if (!isNonceError(resp)) return false;
+        String fresh = nonce(url);
+        return fresh != null && !fresh.equals(used);
+    }
+
+    static boolean isNonceError(HttpResponse<String> resp) {
+        int sc = resp.statusCode();
+        if (sc == 400) return resp.body() != null && resp.body().contains("\"use_dpop_nonce\"");
+        if (sc == 401) {
+            // resource servers signal it in WWW-Authenticate; some only send the new nonce
+            String auth = resp.headers().firstValue("WWW-Authenticate").orElse("");
+            return auth.contains("use_dpop_nonce") || resp.headers().firstValue("DPoP-Nonce").isPresent();
+        }
+        return false;
+    }
+
+    static String origin(String url) {
+        URI u = URI.create(url);
+        String origin = u.getScheme().toLowerCase(Locale.ROOT) + "://" + u.getHost().toLowerCase(Locale.ROOT);
+        return u.getPort() == -1 ? origin : origin + ":" + u.getPort();
+    }
+}
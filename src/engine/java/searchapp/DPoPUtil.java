@@ -0,0 +1,32 @@
+package searchapp; 
+
+import com.nimbusds.jose.jwk.ECKey;
+
+/**
+ * Utility for creating DPoP proofs for Bluesky OAuth. Signing is done by the shared
+ * {@link DPoPProofFactory}; requests that should track server nonces go through {@link DPoPSession}.
+ */
+public final class DPoPUtil {
+
+    private DPoPUtil() {}
+
+    // Loads (or generates) the app's keypair ahead of the first proof
+    public static void init() {
+        DPoPProofFactory.shared();
+    }
+
+    /**
+     * Build a DPoP proof for the given HTTP method and URL.
+     * @param method HTTP verb (e.g. POST, GET)
+     * @param url exact URL (e.g. https://bsky.social/oauth/par)
+     * @param nonce optional nonce (if provided by server on 401)
+     */
+    public static String buildDPoP(String method, String url, String nonce) {
+        return DPoPProofFactory.shared().proof(method, url, nonce);
+    }
+
+    // Optional: getter for public JWK
+    public static ECKey getPublicJWK() {
+        return DPoPProofFactory.shared().publicJWK();
+    }
+}
@@ -0,0 +1,78 @@
+package app.search;
+
+import app.model.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a session does with parsed pages: drop duplicates, then rank each page and fold it
+ * into the results so far. Pages are 25 posts, alternating platforms, as they arrive from
+ * the backends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergeBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+
+    @Param({"small", "50", "5000"})
+    public String size;
+
+    @Param({"latest", "top"})
+    public String sort;
+
+    private List<Post> all;
+    private List<List<Post>> pages;
+
+    @Setup
+    public void setUp() {
+        List<Post> bluesky = new BlueskyPostParser().parse(Payloads.bluesky(size));
+        List<Post> mastodon = new MastodonPostParser().parse(Payloads.mastodon(size));
+        all = new ArrayList<>(bluesky);
+        all.addAll(mastodon);
+        pages = new ArrayList<>();
+        for (int i = 0; i < Math.max(bluesky.size(), mastodon.size()); i += PAGE_SIZE) {
+            if (i < bluesky.size()) pages.add(bluesky.subList(i, Math.min(i + PAGE_SIZE, bluesky.size())));
+            if (i < mastodon.size()) pages.add(mastodon.subList(i, Math.min(i + PAGE_SIZE, mastodon.size())));
+        }
+    }
+
+    @Benchmark
+    public List<Post> dedupe() {
+        return new Deduplicator().filter(all);
+    }
+
+    @Benchmark
+    public List<Post> rankAndMerge() {
+        Ranking ranking = new Ranking(sort, "java threads");
+        List<Post> merged = new ArrayList<>();
+        for (List<Post> page : pages) merged = ranking.merge(merged, ranking.sort(page));
+        return merged;
+    }
+
+    @Benchmark
+    public List<Post> dedupeRankAndMerge() {
+        Deduplicator dedup = new Deduplicator();
+        Ranking ranking = new Ranking(sort, "java threads");
+        List<Post> merged = new ArrayList<>();
+        for (List<Post> page : pages) merged = ranking.merge(merged, ranking.sort(dedup.filter(page)));
+        return merged;
+    }
+}
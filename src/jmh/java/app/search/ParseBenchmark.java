@@ -0,0 +1,69 @@
+package app.search;
+
+import app.model.Post;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Response body to posts, per platform, plus Mastodon's HTML stripping on its own. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"small", "50", "5000"})
+    public String size;
+
+    private final BlueskyPostParser bluesky = new BlueskyPostParser();
+    private final MastodonPostParser mastodon = new MastodonPostParser();
+    private String blueskyBody;
+    private String mastodonBody;
+    private List<String> html;
+
+    @Setup
+    public void setUp() {
+        blueskyBody = Payloads.bluesky(size);
+        mastodonBody = Payloads.mastodon(size);
+        html = new ArrayList<>();
+        JSONArray statuses = new JSONObject(mastodonBody).getJSONArray("statuses");
+        for (int i = 0; i < statuses.length(); i++) {
+            JSONObject st = statuses.getJSONObject(i);
+            JSONObject target = st.optJSONObject("reblog") != null ? st.getJSONObject("reblog") : st;
+            html.add(target.getString("content"));
+        }
+    }
+
+    @Benchmark
+    public SearchPage parseBluesky() {
+        return bluesky.parsePage(blueskyBody);
+    }
+
+    @Benchmark
+    public List<Post> parseMastodon() {
+        return mastodon.parse(mastodonBody);
+    }
+
+    @Benchmark
+    public int stripHtml() {
+        int chars = 0;
+        for (String h : html) chars += MastodonPostParser.stripHtml(h).length();
+        return chars;
+    }
+}
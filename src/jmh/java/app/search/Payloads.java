@@ -0,0 +1,91 @@
+package app.search;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * Search response bodies for the benchmarks. "small" is the recorded response as is;
+ * a number builds a synthetic response of that many posts from the recorded ones, each
+ * with its own id, time, counts and wording so dedupe and ranking see distinct posts.
+ */
+public final class Payloads {
+
+    private static final String[] WORDS = {
+            "java", "jvm", "loom", "valhalla", "records", "threads", "garbage", "collector", "latency",
+            "throughput", "release", "preview", "pattern", "switch", "compiler", "benchmark", "heap",
+            "stream", "module", "gradle", "profiler", "native", "image", "startup", "memory"
+    };
+
+    private Payloads() {}
+
+    public static String bluesky(String size) {
+        JSONObject recorded = new JSONObject(resource("bluesky-searchPosts.json"));
+        if ("small".equals(size)) return recorded.toString();
+        JSONArray source = recorded.getJSONArray("posts");
+        JSONArray posts = new JSONArray();
+        Random random = new Random(42);
+        int n = Integer.parseInt(size);
+        for (int i = 0; i < n; i++) {
+            JSONObject p = new JSONObject(source.getJSONObject(i % source.length()).toString());
+            p.put("uri", p.getString("uri") + i);
+            p.put("likeCount", random.nextInt(2_000));
+            p.put("repostCount", random.nextInt(500));
+            JSONObject record = p.getJSONObject("record");
+            record.put("text", sentence(random, i));
+            record.put("createdAt", time(i));
+            posts.put(p);
+        }
+        return recorded.put("posts", posts).put("cursor", String.valueOf(n)).toString();
+    }
+
+    public static String mastodon(String size) {
+        JSONObject recorded = new JSONObject(resource("mastodon-search.json"));
+        if ("small".equals(size)) return recorded.toString();
+        JSONArray source = recorded.getJSONArray("statuses");
+        JSONArray statuses = new JSONArray();
+        Random random = new Random(7);
+        int n = Integer.parseInt(size);
+        for (int i = 0; i < n; i++) {
+            JSONObject st = new JSONObject(source.getJSONObject(i % source.length()).toString());
+            JSONObject target = st.optJSONObject("reblog") != null ? st.getJSONObject("reblog") : st;
+            target.put("uri", target.getString("uri") + "-" + i);
+            target.put("url", target.getString("url") + "-" + i);
+            target.put("favourites_count", random.nextInt(2_000));
+            target.put("reblogs_count", random.nextInt(500));
+            target.put("created_at", time(i));
+            target.put("content", "<p>" + sentence(random, i)
+                    + " <a href=\"https://mastodon.social/tags/java\" class=\"mention hashtag\" rel=\"tag\">#<span>java</span></a>"
+                    + " &amp; friends</p>");
+            statuses.put(st);
+        }
+        return recorded.put("statuses", statuses).toString();
+    }
+
+    private static String sentence(Random random, int i) {
+        StringBuilder sb = new StringBuilder("post ").append(i);
+        int words = 8 + random.nextInt(24);
+        for (int w = 0; w < words; w++) sb.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        return sb.toString();
+    }
+
+    // one post a minute, counting back from a fixed point so runs are comparable
+    private static String time(int i) {
+        return Instant.parse("2024-10-14T16:00:00Z").minusSeconds(60L * i).toString();
+    }
+
+    private static String resource(String name) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) throw new IllegalStateException("missing payload " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package app.ui;
+
+import app.model.Post;
+import app.search.BlueskyPostParser;
+import app.search.MastodonPostParser;
+import app.search.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model to card, up to the nodes: the strings {@link PostCardView#show} binds. The nodes
+ * themselves need a running JavaFX toolkit, so they are left out to keep this runnable headless.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBenchmark {
+
+    @Param({"small", "50", "5000"})
+    public String size;
+
+    private List<Post> posts;
+
+    @Setup
+    public void setUp() {
+        posts = new ArrayList<>(new BlueskyPostParser().parse(Payloads.bluesky(size)));
+        posts.addAll(new MastodonPostParser().parse(Payloads.mastodon(size)));
+    }
+
+    @Benchmark
+    public int cardText() {
+        int chars = 0;
+        for (Post p : posts) chars += PostCards.cardText(p).meta().length();
+        return chars;
+    }
+
+    @Benchmark
+    public int formatRelativeTime() {
+        int chars = 0;
+        for (Post p : posts) chars += PostCards.formatRelativeTime(p.createdAt()).length();
+        return chars;
+    }
+}
@@ -0,0 +1,116 @@
+package searchapp;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of one DPoP proof on the request thread: the old per-proof header/signer/URI
+ * rebuild, the factory's signing path, and the factory with presigned proofs. Requests are
+ * made from virtual threads, so the *VirtualThread variants sign on a fresh thread per
+ * proof (thread start and join included) and show whether signer setup is paid per thread.
+ * Key generation, which used to happen on every launch, is measured separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DPoPBenchmark {
+
+    private static final String URL = "https://bsky.social/xrpc/app.bsky.feed.searchPosts?q=java&limit=50";
+    private static final String NONCE = "ejH2dpvUEwE7HaVuqTvKz4pRUw5mX1nq";
+
+    private ECKey key;
+    private ECKey publicJWK;
+    private DPoPProofFactory signing;
+    private DPoPProofFactory presigning;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        key = DPoPProofFactory.generateKey();
+        publicJWK = key.toPublicJWK();
+        signing = new DPoPProofFactory(key, false);
+        presigning = new DPoPProofFactory(key, true);
+    }
+
+    @Benchmark
+    public String rebuildPerProof() throws Exception {
+        // what DPoPUtil.buildDPoP used to do for every request
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.ES256)
+                .type(new JOSEObjectType("dpop+jwt"))
+                .jwk(publicJWK)
+                .build();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(Instant.now()))
+                .claim("htm", "GET")
+                .claim("htu", new URI(URL).toString())
+                .claim("nonce", NONCE)
+                .build();
+        SignedJWT jwt = new SignedJWT(header, claims);
+        jwt.sign(new ECDSASigner(key));
+        return jwt.serialize();
+    }
+
+    @Benchmark
+    public String factorySign() {
+        return signing.proof("GET", URL, NONCE);
+    }
+
+    @Benchmark
+    public String factoryPresigned() {
+        return presigning.proof("GET", URL, NONCE);
+    }
+
+    @Benchmark
+    public String rebuildPerProofVirtualThread() throws Exception {
+        return onVirtualThread(() -> {
+            try {
+                return rebuildPerProof();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Benchmark
+    public String factorySignVirtualThread() throws Exception {
+        return onVirtualThread(() -> signing.proof("GET", URL, NONCE));
+    }
+
+    private static String onVirtualThread(Supplier<String> proof) throws InterruptedException {
+        String[] out = new String[1];
+        Thread.ofVirtual().start(() -> out[0] = proof.get()).join();
+        return out[0];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public ECKey keyGeneration() {
+        return DPoPProofFactory.generateKey();
+    }
+}
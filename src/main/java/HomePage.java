@@ -1,4 +1,6 @@
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -9,12 +11,62 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import java.net.http.*;
 import java.net.URI;
-import app.ui.PostCards;
+import app.model.Hashtag;
+import app.model.Post;
+import app.model.Profile;
+import app.net.HttpTransport;
+import app.search.LocalIndex;
+import app.search.LocalQuery;
+import app.search.Ranking;
+import app.search.SearchBackend;
+import app.search.SearchEngine;
+import app.search.SearchRequest;
+import app.search.SearchSession;
+import app.search.SuggestionService;
+import app.search.VerticalSearch;
+import app.ui.HashtagCell;
+import app.ui.PostCell;
+import app.ui.ProfileCell;
+import auth.mastodon.ClientRegistry;
+import searchapp.TokenManager;
 
 public class HomePage extends BorderPane {
     private VBox sidebarContent;
     private boolean sidebarExpanded = true;
     private VBox resultsArea;
+    private VBox statusArea;
+    private ListView<Post> resultsList;
+    // The search currently shown; used to fetch further pages as the user scrolls
+    private SearchSession currentSession;
+    private ObservableList<Post> currentPosts;
+    private VBox currentStatusBox;
+    // highest row index of currentPosts shown so far; rows up to it are never reordered
+    private int currentShownMax = -1;
+    private Task<Void> currentTask;
+    // bumped by every search; callbacks of older searches compare and bail out
+    private long searchGeneration;
+    private TextField searchInput;
+    private java.util.function.Consumer<Boolean> searchAction;
+
+    // Tabs: "All" and "Posts" show the post search; "Profiles" and "Hashtags" are fetched on first open
+    private static final String TAB_ALL = "All";
+    private static final String TAB_PROFILES = "Profiles";
+    private static final String TAB_HASHTAGS = "Hashtags";
+    private static final String TAB_POSTS = "Posts";
+    private static final String TAB_STYLE = "-fx-font-size: 18; -fx-font-weight: bold; -fx-cursor: hand;";
+    private static final String TAB_SELECTED_STYLE = TAB_STYLE + " -fx-underline: true; -fx-text-fill: #1a1a80;";
+    private final java.util.Map<String, Label> tabLabels = new java.util.LinkedHashMap<>();
+    private String selectedTab = TAB_ALL;
+    private FlowPane summaryBar;
+    private ListView<Profile> profilesList;
+    private ListView<Hashtag> hashtagsList;
+    private Label profilesStatus;
+    private Label hashtagsStatus;
+    private String currentQuery;
+    private VerticalSearch currentVerticals;
+    // query each vertical was last loaded for; null until its tab is opened
+    private String profilesLoadedFor;
+    private String hashtagsLoadedFor;
     private String blueskyHandle;
     private String mastodonHandle;
     private Label blueskyHandleLbl;
@@ -28,11 +80,12 @@ public class HomePage extends BorderPane {
                     String mastodonHandle,
                     Runnable onGoBack,
                     Runnable onBlueskyLogin,
-                    Runnable onMastodonLogin){
+                    Runnable onMastodonLogin,
+                    Runnable onSignOut){
         this.blueskyHandle = blueskyHandle == null ? "" : blueskyHandle;
         this.mastodonHandle = mastodonHandle == null ? "" : mastodonHandle;
         // === Top: Search Bar ===
-        HBox searchBar = createSearchBar(platform, onGoBack, onBlueskyLogin, blueskyAccessToken, mastodonAccessToken, mastodonInstance);
+        HBox searchBar = createSearchBar(platform, onGoBack, onSignOut, onBlueskyLogin, blueskyAccessToken, mastodonAccessToken, mastodonInstance);
         this.setTop(searchBar);
 
         // === Center: Tabs + Results Area ===
@@ -40,32 +93,53 @@ public class HomePage extends BorderPane {
         tabs.setAlignment(Pos.CENTER_LEFT);
         tabs.setPadding(new Insets(0, 0, 0, 20));
         tabs.setStyle("-fx-background-color: #a3a3ff; -fx-border-color: black; -fx-border-width: 1 0 1 0;");
-        String[] tabNames = {"All", "Profiles", "Hashtags", "Posts"};
+        String[] tabNames = {TAB_ALL, TAB_PROFILES, TAB_HASHTAGS, TAB_POSTS};
         for (String name : tabNames) {
             Label tab = new Label(name);
-            tab.setStyle("-fx-font-size: 18; -fx-font-weight: bold;");
+            tab.setStyle(name.equals(selectedTab) ? TAB_SELECTED_STYLE : TAB_STYLE);
+            tab.setOnMouseClicked(e -> selectTab(name));
+            tabLabels.put(name, tab);
             tabs.getChildren().add(tab);
         }
 
-        resultsArea = new VBox();
+        statusArea = new VBox(8);
+        statusArea.setAlignment(Pos.CENTER);
+        statusArea.setFillWidth(true);
+
+        // Virtualized results: cells are recycled, so only the cards on screen exist as nodes
+        resultsList = new ListView<>();
+        resultsList.setCellFactory(lv -> new PostCell(this::onRowShown));
+        resultsList.setFocusTraversable(false);
+        resultsList.setStyle("-fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: 0;");
+        VBox.setVgrow(resultsList, Priority.ALWAYS);
+
+        // Cheap summary for "All": a few matching accounts and tags above the posts
+        summaryBar = new FlowPane(8, 6);
+        summaryBar.managedProperty().bind(summaryBar.visibleProperty());
+        summaryBar.setVisible(false);
+
+        profilesList = new ListView<>();
+        profilesList.setCellFactory(lv -> new ProfileCell());
+        hashtagsList = new ListView<>();
+        hashtagsList.setCellFactory(lv -> new HashtagCell(this::openHashtag));
+        for (ListView<?> lv : java.util.List.of(profilesList, hashtagsList)) {
+            lv.setFocusTraversable(false);
+            lv.setStyle("-fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: 0;");
+            VBox.setVgrow(lv, Priority.ALWAYS);
+        }
+        profilesStatus = new Label("Search to see matching profiles.");
+        hashtagsStatus = new Label("Search to see matching hashtags.");
+
+        resultsArea = new VBox(10, summaryBar, statusArea, resultsList);
         resultsArea.setPadding(new Insets(20));
         resultsArea.setFillWidth(true);
-        resultsArea.setAlignment(Pos.CENTER);
-        
-        ScrollPane resultsScroll = new ScrollPane(resultsArea);
-        resultsScroll.setFitToWidth(true);
-        resultsScroll.setFitToHeight(true);
-        resultsScroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        resultsScroll.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        resultsScroll.setPannable(true);
-        resultsScroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
-
-        // Make scroll pane expand to fill available space
-        VBox.setVgrow(resultsScroll, Priority.ALWAYS);
-        HBox.setHgrow(resultsScroll, Priority.ALWAYS);
-
-        VBox centerBox = new VBox(tabs, resultsScroll);
-        VBox.setVgrow(resultsScroll, Priority.ALWAYS);
+        resultsArea.setAlignment(Pos.TOP_CENTER);
+
+        // Make results expand to fill available space
+        VBox.setVgrow(resultsArea, Priority.ALWAYS);
+        HBox.setHgrow(resultsArea, Priority.ALWAYS);
+
+        VBox centerBox = new VBox(tabs, resultsArea);
         centerBox.setStyle("-fx-background-color: #f0f8ff;");
         this.setCenter(centerBox);
 
@@ -76,7 +150,7 @@ public class HomePage extends BorderPane {
         this.setStyle("-fx-background-color: #e6f2ff;");
     }
 
-    private HBox createSearchBar(String platform, Runnable onGoBack, Runnable onBlueskyLogin, String blueskyAccessToken, String mastodonAccessToken, String mastodonInstance) {
+    private HBox createSearchBar(String platform, Runnable onGoBack, Runnable onSignOut, Runnable onBlueskyLogin, String blueskyAccessToken, String mastodonAccessToken, String mastodonInstance) {
         HBox searchBar = new HBox(10);
         searchBar.setPadding(new Insets(20));
         searchBar.setAlignment(Pos.CENTER);
@@ -138,6 +212,14 @@ public class HomePage extends BorderPane {
         cbMastodon.setSelected(mastodonLoggedIn);
         cbMastodon.setDisable(!mastodonLoggedIn);
 
+        // Federated mode: also query other known instances (anonymously, by hashtag)
+        CheckBox cbFederated = new CheckBox("All instances");
+        cbFederated.setStyle("-fx-font-size: 11;");
+
+        CheckBox cbLive = new CheckBox("Search as you type");
+        cbLive.setSelected(true);
+        cbLive.setStyle("-fx-font-size: 11;");
+
         // Create a HBox for buttons to keep them together
         HBox buttonGroup = new HBox(10);
         buttonGroup.setAlignment(Pos.CENTER_RIGHT);
@@ -149,7 +231,15 @@ public class HomePage extends BorderPane {
             if (onGoBack != null) onGoBack.run();
         });
 
-        buttonGroup.getChildren().addAll(searchBtn, goBackButton);
+        // Sign out of every account and forget the saved sessions
+        Button signOutButton = new Button("Sign Out");
+        signOutButton.setStyle("-fx-background-radius: 20;");
+        signOutButton.setOnAction(e -> {
+            cancelCurrentSearch();
+            if (onSignOut != null) onSignOut.run();
+        });
+
+        buttonGroup.getChildren().addAll(searchBtn, goBackButton, signOutButton);
 
         Button toggleSidebarBtn = new Button("☰");
         toggleSidebarBtn.setStyle("-fx-font-size: 24; -fx-background-color: transparent; -fx-padding: 0; -fx-border-width: 0;");
@@ -162,7 +252,7 @@ public class HomePage extends BorderPane {
         });
 
         // Create VBox for checkboxes
-        VBox checkBoxGroup = new VBox(5, cbBluesky, cbMastodon);
+        VBox checkBoxGroup = new VBox(5, cbBluesky, cbMastodon, cbFederated, cbLive);
         checkBoxGroup.setAlignment(Pos.CENTER_LEFT);
 
         // Sort UI: choice box for \ Latest / Most relevant
@@ -181,19 +271,26 @@ public class HomePage extends BorderPane {
 
         searchBar.getChildren().add(leftContent);
 
-        // Add search button action
-        searchBtn.setOnAction(e -> {
+        // interactive: Enter or the button (complains about bad input, always re-runs);
+        // otherwise triggered by typing (silent, skips a query that is already showing)
+        java.util.function.Consumer<Boolean> runSearch = interactive -> {
             String q = searchField.getText().trim();
             if (q.isEmpty()) {
-                showAlert("Please enter a search query.");
+                if (interactive) showAlert("Please enter a search query.");
                 return;
             }
-            if (!cbBluesky.isSelected() && !cbMastodon.isSelected()) {
-                showAlert("Please select at least one platform.");
+            if (!cbBluesky.isSelected() && !cbMastodon.isSelected() && !cbFederated.isSelected()) {
+                if (interactive) showAlert("Please select at least one platform.");
                 return;
             }
 
-            showSearchResults(new Label("⏳ Searching..."));
+            // Status messages on top, posts below; both are filled in as backends report
+            Label searchingLbl = new Label("⏳ Searching...");
+            styleMessageLabel(searchingLbl);
+            VBox statusBox = new VBox(8, searchingLbl);
+            statusBox.setAlignment(Pos.CENTER);
+            ObservableList<Post> posts = FXCollections.observableArrayList();
+            showSearchResults(statusBox, posts);
 
             // determine sort param to send to server (Bluesky supports sort=top|latest)
             final String sortParamFinal;
@@ -202,191 +299,159 @@ public class HomePage extends BorderPane {
             else if ("Top".equalsIgnoreCase(sortSel) || "Top".equalsIgnoreCase(sortSel)) sortParamFinal = "top";
             else sortParamFinal = null;
 
-            Task<Node> task = new Task<>() {
-                 @Override
-                 protected Node call() throws Exception {
-                    VBox box = new VBox(10);
-                    box.setSpacing(12);
-
-                    java.util.List<Node> blueskyCards = new java.util.ArrayList<>();
-                    java.util.List<Node> mastodonCards = new java.util.ArrayList<>();
-                    java.util.List<Node> merged = new java.util.ArrayList<>();
-
-                    // collect Bluesky cards
-                    if (cbBluesky.isSelected()) {
-                        if (blueskyAccessToken == null || blueskyAccessToken.isBlank()) {
-                            blueskyCards.add(new Label("❌ Not logged into Bluesky."));
-                        } else {
-                            try {
-                                String body = searchBlueskyRaw(q, blueskyAccessToken, sortParamFinal);
-                                blueskyCards.addAll(PostCards.buildBlueskyCardsFromBody(body));
-                            } catch (Exception ex) {
-                                Label err = new Label("❌ Bluesky error: " + ex.getMessage());
-                                blueskyCards.add(err);
-                                System.err.println("[Bluesky] search exception: " + ex.getMessage());
-                            }
-                        }
-                    }
-
-                    // collect Mastodon cards
-                    if (cbMastodon.isSelected()) {
-                        if (mastodonAccessToken == null || mastodonAccessToken.isBlank()) {
-                            mastodonCards.add(new Label("❌ Not logged into Mastodon."));
-                        } else {
-                            try {
-                                String instanceHost = (mastodonInstance == null) ? "" : mastodonInstance;
-                                String body = searchMastodonRaw(q, instanceHost, mastodonAccessToken);
-                                mastodonCards.addAll(PostCards.buildMastodonCardsFromBody(body));
-                            } catch (Exception ex) {
-                                Label err = new Label("❌ Mastodon error: " + ex.getMessage());
-                                mastodonCards.add(err);
-                                System.err.println("[Mastodon] search exception: " + ex.getMessage());
-                            }
-                        }
-                    }
+            final boolean searchBluesky = cbBluesky.isSelected();
+            final boolean searchMastodon = cbMastodon.isSelected() || cbFederated.isSelected();
 
-                    // Interleave the two lists (round-robin)
-                    int bi = 0, mi = 0;
-                    while (bi < blueskyCards.size() || mi < mastodonCards.size()) {
-                        if (bi < blueskyCards.size()) {
-                            merged.add(blueskyCards.get(bi++));
-                        }
-                        if (mi < mastodonCards.size()) {
-                            merged.add(mastodonCards.get(mi++));
-                        }
-                    }
+            if (!interactive && currentSession != null && !currentSession.isCancelled()
+                    && q.equals(currentSession.query()) && java.util.Objects.equals(sortParamFinal, currentSession.sort())) {
+                return;
+            }
+            // Superseded search: stop its requests and ignore anything it still reports
+            cancelCurrentSearch();
+            final long generation = ++searchGeneration;
+
+            SearchRequest request = new SearchRequest(q, sortParamFinal, searchBluesky,
+                    cbMastodon.isSelected(), cbFederated.isSelected());
+            // tokens refreshed since this page was built take precedence; one found expired
+            // is refreshed first, and the search starts once that refresh has finished
+            TokenManager tokens = TokenManager.shared();
+            java.util.concurrent.CompletableFuture<SearchEngine.Accounts> accountsReady =
+                    tokens.freshAccessToken(TokenManager.BLUESKY, blueskyAccessToken).thenCombine(
+                            tokens.freshAccessToken(TokenManager.mastodonKey(mastodonInstance), mastodonAccessToken),
+                            (blueskyToken, mastodonToken) -> new SearchEngine.Accounts(blueskyToken, mastodonInstance,
+                                    mastodonToken, ClientRegistry.instances()));
+
+            java.util.function.Consumer<SearchEngine.Accounts> start = accounts -> {
+                java.util.List<SearchBackend> backends =
+                        SearchEngine.backends(request, accounts, problem -> publishStatus(statusBox, "❌ " + problem));
+
+                SearchSession session = new SearchSession(request.getQuery(), request.getSort(), backends);
+                currentSession = session;
+                currentPosts = posts;
+                currentStatusBox = statusBox;
+                currentShownMax = -1;
+                startVerticals(q, new VerticalSearch(searchBluesky, searchMastodon ? mastodonInstance : null, accounts.mastodonToken()));
+
+                // Posts downloaded earlier that match are shown right away; remote pages merge in as they arrive
+                java.util.Set<String> platforms = new java.util.HashSet<>();
+                if (searchBluesky) platforms.add("bluesky");
+                if (searchMastodon) platforms.add("mastodon");
+                LocalQuery localQuery = LocalQuery.parse(q).onPlatforms(platforms);
+                long t0 = System.nanoTime();
+                java.util.List<Post> localHits = LocalIndex.shared().search(localQuery, LOCAL_RESULTS);
+                if (!localHits.isEmpty()) {
+                    System.out.println("[LocalIndex] " + localHits.size() + " hits in "
+                            + (System.nanoTime() - t0) / 1000 + " µs");
+                    publishPosts(posts, session.seed(localHits), session.ranking());
+                }
 
-                    // If merged empty, show appropriate message
-                    if (merged.isEmpty()) {
+                Task<Void> task = loadPageTask(session, posts, statusBox);
+                currentTask = task;
+                task.setOnSucceeded(event -> {
+                    if (generation != searchGeneration) return;
+                    statusBox.getChildren().remove(searchingLbl);
+                    // If nothing came back, show appropriate message
+                    if (posts.isEmpty()) {
                         String msg = "No results.";
-                        if (cbBluesky.isSelected() && !cbMastodon.isSelected()) msg = "🔵 Bluesky: No results.";
-                        if (cbMastodon.isSelected() && !cbBluesky.isSelected()) msg = "🐘 Mastodon: No results.";
-                        box.getChildren().add(new Label(msg));
-                    } else {
-                        // Add merged cards to box with consistent styling
-                        for (Node n : merged) {
-                            VBox.setMargin(n, new Insets(8));
-                            n.setStyle("-fx-background-color: white; -fx-padding: 12; -fx-background-radius: 8;");
-                            box.getChildren().add(n);
-                        }
+                        if (searchBluesky && !searchMastodon) msg = "🔵 Bluesky: No results.";
+                        if (searchMastodon && !searchBluesky) msg = "🐘 Mastodon: No results.";
+                        Label none = new Label(msg);
+                        styleMessageLabel(none);
+                        statusBox.getChildren().add(none);
+                    } else if (posts.size() <= PREFETCH_ROWS) {
+                        // too few rows to scroll; fetch the next page right away
+                        onRowShown(posts.size() - 1);
                     }
-                    return box;
-                }
+                });
+                task.setOnFailed(event -> {
+                    if (generation != searchGeneration) return;
+                    showSearchResults(new Label("❌ Search failed: " + event.getSource().getException().getMessage()));
+                });
+
+                new Thread(task).start();
             };
+            if (accountsReady.isDone()) {
+                start.accept(accountsReady.join());
+            } else {
+                accountsReady.thenAccept(accounts -> Platform.runLater(() -> {
+                    if (generation == searchGeneration) start.accept(accounts);
+                }));
+            }
+        };
 
-            task.setOnSucceeded(event -> showSearchResults(task.getValue()));
-            task.setOnFailed(event -> 
-                showSearchResults(new Label("❌ Search failed: " + event.getSource().getException().getMessage()))
-            );
+        searchInput = searchField;
+        searchAction = runSearch;
+        searchBtn.setOnAction(e -> runSearch.accept(true));
+        searchField.setOnAction(e -> searchBtn.fire());
 
-            new Thread(task).start();
+        // Search as you type: wait for a pause in typing, then search (superseding any running search)
+        javafx.animation.PauseTransition debounce = new javafx.animation.PauseTransition(javafx.util.Duration.millis(DEBOUNCE_MS));
+        debounce.setOnFinished(e -> runSearch.accept(false));
+        searchField.textProperty().addListener((obs, oldText, newText) -> {
+            if (!cbLive.isSelected()) return;
+            if (newText.trim().length() < LIVE_MIN_CHARS) {
+                debounce.stop();
+                return;
+            }
+            debounce.playFromStart();
+        });
+
+        // Typeahead for @handles and #tags: local matches at once, platform matches shortly after
+        ContextMenu suggestions = new ContextMenu();
+        javafx.animation.PauseTransition suggestDelay = new javafx.animation.PauseTransition(javafx.util.Duration.millis(SUGGEST_DELAY_MS));
+        searchField.textProperty().addListener((obs, oldText, newText) -> {
+            String token = lastToken(newText);
+            java.util.List<String> local = SuggestionService.shared().local(token, MAX_SUGGESTIONS);
+            showSuggestions(suggestions, searchField, token, local);
+            if (token.length() < 2 || !(token.startsWith("@") || token.startsWith("#"))) {
+                suggestDelay.stop();
+                return;
+            }
+            suggestDelay.setOnFinished(e -> SuggestionService.shared()
+                .remote(token, mastodonInstance, mastodonAccessToken)
+                .thenAccept(remote -> Platform.runLater(() -> {
+                    // the user may have typed on meanwhile
+                    if (!token.equals(lastToken(searchField.getText()))) return;
+                    java.util.Set<String> merged = new java.util.LinkedHashSet<>(local);
+                    merged.addAll(remote);
+                    showSuggestions(suggestions, searchField, token,
+                        merged.stream().limit(MAX_SUGGESTIONS).toList());
+                })));
+            suggestDelay.playFromStart();
+        });
+        searchField.focusedProperty().addListener((obs, was, focused) -> {
+            if (!focused) suggestions.hide();
         });
 
-        searchField.setOnAction(e -> searchBtn.fire());
-        
         return searchBar;
     }
-    private String searchBlueskyRaw(String query, String accessJwt, String sort) throws Exception {
-        String q = java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
-        String[] hosts = new String[] {
-            "https://public.api.bsky.app",
-            "https://api.bsky.app"
-        };
-        var client = java.net.http.HttpClient.newBuilder()
-            .connectTimeout(java.time.Duration.ofSeconds(10))
-            .build();
-
-        for (String host : hosts) {
-            String url = host + "/xrpc/app.bsky.feed.searchPosts?q=" + q + "&limit=50" + (sort != null ? "&sort=" + java.net.URLEncoder.encode(sort, java.nio.charset.StandardCharsets.UTF_8) : "");
-            var req = java.net.http.HttpRequest.newBuilder()
-                .uri(java.net.URI.create(url))
-                .GET()
-                .header("User-Agent", "SearchApp/1.0")
-                .header("Accept", "application/json")
-                .timeout(java.time.Duration.ofSeconds(10))
-                .build();
-            var resp = client.send(req, java.net.http.HttpResponse.BodyHandlers.ofString());
-            int code = resp.statusCode();
-            if (code / 100 == 2) return resp.body();
-            if (code == 403) {
-                System.err.println("[Bluesky] AppView 403 on " + host + " – trying fallback");
-                continue;
-            }
-            String shortBody = resp.body() == null ? "" :
-                (resp.body().length() > 300 ? resp.body().substring(0, 300) + "…" : resp.body());
-            throw new RuntimeException("Bluesky search failed: " + code + " " + shortBody);
-        }
 
-        if (accessJwt != null && !accessJwt.isBlank()) {
-            String pdsHost = "https://bsky.social";
-            String url = pdsHost.replaceAll("/+$", "") + "/xrpc/app.bsky.feed.searchPosts?q=" + q + "&limit=50" + (sort != null ? "&sort=" + java.net.URLEncoder.encode(sort, java.nio.charset.StandardCharsets.UTF_8) : "");
-            String dpopProof = null;
-            try { dpopProof = searchapp.DPoPUtil.buildDPoP("GET", url, null); } catch (Exception ignored) {}
-
-            var reqBuilder = java.net.http.HttpRequest.newBuilder()
-                .uri(java.net.URI.create(url))
-                .GET()
-                .header("Authorization", "DPoP " + accessJwt)
-                .header("DPoP", dpopProof == null ? "" : dpopProof)
-                .header("User-Agent", "SearchApp/1.0")
-                .header("Accept", "application/json")
-                .timeout(java.time.Duration.ofSeconds(10));
-            var req = reqBuilder.build();
-            var resp = client.send(req, java.net.http.HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() == 401 && resp.headers().firstValue("dpop-nonce").isPresent()) {
-                String nonce = resp.headers().firstValue("dpop-nonce").get();
-                String proofWithNonce = searchapp.DPoPUtil.buildDPoP("GET", url, nonce);
-                req = java.net.http.HttpRequest.newBuilder()
-                    .uri(java.net.URI.create(url))
-                    .GET()
-                    .header("Authorization", "DPoP " + accessJwt)
-                    .header("DPoP", proofWithNonce)
-                    .header("User-Agent", "SearchApp/1.0")
-                    .header("Accept", "application/json")
-                    .timeout(java.time.Duration.ofSeconds(10))
-                    .build();
-                resp = client.send(req, java.net.http.HttpResponse.BodyHandlers.ofString());
-            }
-            int code = resp.statusCode();
-            if (code / 100 == 2) return resp.body();
-            String shortBody = resp.body() == null ? "" :
-                (resp.body().length() > 300 ? resp.body().substring(0, 300) + "…" : resp.body());
-            throw new RuntimeException("Bluesky (PDS) search failed: " + code + " " + shortBody);
-        }
-        throw new RuntimeException("Bluesky search blocked by AppView and no PDS fallback available.");
+    // Word at the end of the search text, where typeahead applies
+    private static String lastToken(String text) {
+        if (text == null || text.isEmpty() || Character.isWhitespace(text.charAt(text.length() - 1))) return "";
+        int start = text.length();
+        while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) start--;
+        return text.substring(start);
     }
 
-    // Raw Mastodon search: returns HTTP body on 2xx
-    private String searchMastodonRaw(String query, String instance, String accessToken) throws Exception {
-        String inst = instance == null ? "" : instance.trim();
-        inst = inst.replaceFirst("^https?://", "");
-        inst = inst.replaceAll("^@", "");
-        if (inst.isEmpty()) throw new IllegalArgumentException("Missing Mastodon instance host");
-
-        String q = java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
-        String url = "https://" + inst + "/api/v2/search?type=statuses&q=" + q + "&limit=50&resolve=true";
-
-        var req = java.net.http.HttpRequest.newBuilder()
-            .uri(java.net.URI.create(url))
-            .GET()
-            .header("Authorization", "Bearer " + accessToken)
-            .header("Accept", "application/json")
-            .header("User-Agent", "GRClient/1.0 (+https://grjimenez.github.io)")
-            .timeout(java.time.Duration.ofSeconds(10))
-            .build();
-
-        var client = java.net.http.HttpClient.newHttpClient();
-        var resp = client.send(req, java.net.http.HttpResponse.BodyHandlers.ofString());
-        if (resp.statusCode() / 100 != 2) {
-            String shortBody = resp.body() == null ? "" :
-                (resp.body().length() > 300 ? resp.body().substring(0, 300) + "…" : resp.body());
-            System.err.println("[Mastodon] search failed HTTP " + resp.statusCode() + " body=" + shortBody);
-            throw new RuntimeException("Mastodon search failed: " + resp.statusCode() + " " + shortBody);
+    private static void showSuggestions(ContextMenu menu, TextField field, String token, java.util.List<String> values) {
+        if (values.isEmpty()) {
+            menu.hide();
+            return;
         }
-        return resp.body();
+        java.util.List<MenuItem> items = new java.util.ArrayList<>(values.size());
+        for (String value : values) {
+            MenuItem item = new MenuItem(value);
+            item.setOnAction(e -> {
+                String text = field.getText();
+                field.setText(text.substring(0, text.length() - token.length()) + value + " ");
+                field.positionCaret(field.getText().length());
+            });
+            items.add(item);
+        }
+        menu.getItems().setAll(items);
+        if (!menu.isShowing()) menu.show(field, javafx.geometry.Side.BOTTOM, 0, 0);
     }
-
-
     // Helper to summarize posts array safely
     private String prettyPrintSearch(String body) {
         if (body == null || body.isBlank()) return "🔵 Bluesky results:\n• Empty response.";
@@ -518,9 +583,224 @@ public class HomePage extends BorderPane {
         });
     }
 
+    // Rows from the end of the list at which the next page is requested
+    private static final int PREFETCH_ROWS = 10;
+    // Local index hits shown before the remote results arrive
+    private static final int LOCAL_RESULTS = 50;
+    // Search as you type: quiet period after the last keystroke, and shortest query searched
+    private static final int DEBOUNCE_MS = 350;
+    private static final int LIVE_MIN_CHARS = 2;
+    // Typeahead: wait before asking the platforms, and how many suggestions to list
+    private static final int SUGGEST_DELAY_MS = 150;
+    private static final int MAX_SUGGESTIONS = 8;
+
+    // Profiles / hashtags shown per tab, and summary chips for "All"
+    private static final int VERTICAL_RESULTS = 25;
+    private static final int SUMMARY_PROFILES = 3;
+    private static final int SUMMARY_TAGS = 5;
+
+    private void selectTab(String name) {
+        selectedTab = name;
+        tabLabels.forEach((n, label) -> label.setStyle(n.equals(name) ? TAB_SELECTED_STYLE : TAB_STYLE));
+        switch (name) {
+            case TAB_PROFILES -> {
+                resultsArea.getChildren().setAll(profilesStatus, profilesList);
+                ensureProfilesLoaded();
+            }
+            case TAB_HASHTAGS -> {
+                resultsArea.getChildren().setAll(hashtagsStatus, hashtagsList);
+                ensureHashtagsLoaded();
+            }
+            case TAB_POSTS -> resultsArea.getChildren().setAll(statusArea, resultsList);
+            default -> resultsArea.getChildren().setAll(summaryBar, statusArea, resultsList);
+        }
+    }
+
+    // New query: forget loaded verticals, refresh the summary, and load whatever tab is open
+    private void startVerticals(String query, VerticalSearch verticals) {
+        currentQuery = query;
+        currentVerticals = verticals;
+        profilesLoadedFor = null;
+        hashtagsLoadedFor = null;
+        profilesList.getItems().clear();
+        hashtagsList.getItems().clear();
+        loadSummary(query);
+        if (TAB_PROFILES.equals(selectedTab)) ensureProfilesLoaded();
+        if (TAB_HASHTAGS.equals(selectedTab)) ensureHashtagsLoaded();
+    }
+
+    private void ensureProfilesLoaded() {
+        if (currentVerticals == null || currentQuery.equals(profilesLoadedFor)) return;
+        String query = profilesLoadedFor = currentQuery;
+        VerticalSearch verticals = currentVerticals;
+        loadVertical(query, profilesList, profilesStatus, "profiles",
+            () -> verticals.profiles(query, VERTICAL_RESULTS));
+    }
+
+    private void ensureHashtagsLoaded() {
+        if (currentVerticals == null || currentQuery.equals(hashtagsLoadedFor)) return;
+        String query = hashtagsLoadedFor = currentQuery;
+        VerticalSearch verticals = currentVerticals;
+        loadVertical(query, hashtagsList, hashtagsStatus, "hashtags",
+            () -> verticals.hashtags(query, VERTICAL_RESULTS));
+    }
+
+    private <T> void loadVertical(String query, ListView<T> list, Label status, String what,
+                                  java.util.concurrent.Callable<java.util.List<T>> fetch) {
+        status.setText("⏳ Loading " + what + "...");
+        Thread.ofVirtual().start(() -> {
+            java.util.List<T> items;
+            try {
+                items = fetch.call();
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    if (query.equals(currentQuery)) status.setText("❌ Could not load " + what + ": " + e.getMessage());
+                });
+                return;
+            }
+            Platform.runLater(() -> {
+                if (!query.equals(currentQuery)) return;
+                list.getItems().setAll(items);
+                status.setText(items.isEmpty() ? "No " + what + " found." : items.size() + " " + what);
+            });
+        });
+    }
+
+    // Summary chips: accounts and tags from the local typeahead index, so a search costs no extra request
+    private void loadSummary(String query) {
+        summaryBar.getChildren().clear();
+        String word = query.replaceAll("[^\\p{L}\\p{N}_]", "");
+        if (!word.isEmpty()) {
+            for (String h : SuggestionService.shared().local("@" + word, SUMMARY_PROFILES)) {
+                summaryBar.getChildren().add(summaryChip(h, () -> selectTab(TAB_PROFILES)));
+            }
+            for (String t : SuggestionService.shared().local("#" + word, SUMMARY_TAGS)) {
+                summaryBar.getChildren().add(summaryChip(t, () -> openHashtag(new Hashtag(t.substring(1), null, null))));
+            }
+        }
+        summaryBar.setVisible(!summaryBar.getChildren().isEmpty());
+    }
+
+    private static Label summaryChip(String text, Runnable onClick) {
+        Label chip = new Label(text);
+        chip.setStyle("-fx-background-color: #eef2ff; -fx-text-fill: #3730a3; -fx-padding: 3 10; -fx-background-radius: 999; -fx-font-size: 12px; -fx-cursor: hand;");
+        chip.setOnMouseClicked(e -> onClick.run());
+        return chip;
+    }
+
+    // Hashtag picked from a list or chip: show its posts
+    private void openHashtag(Hashtag tag) {
+        if (searchInput == null || searchAction == null) return;
+        selectTab(TAB_POSTS);
+        searchInput.setText("#" + tag.name());
+        searchAction.accept(true);
+    }
+
+    private void cancelCurrentSearch() {
+        if (currentSession != null) currentSession.cancel();
+        if (currentTask != null) currentTask.cancel(true);
+        currentTask = null;
+    }
+
+    private Task<Void> loadPageTask(SearchSession session, ObservableList<Post> posts, VBox statusBox) {
+        return new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                // Each platform's page is published as soon as that backend completes
+                session.loadNextPage(outcome -> {
+                    String name = sourceLabel(outcome.platform());
+                    if (outcome.isSuccess()) {
+                        System.out.println("[" + name + "] page " + (session.pagesLoaded() + 1) + " took " + outcome.elapsedMillis() + " ms");
+                        publishPosts(posts, outcome.value().posts(), session.ranking());
+                    } else if (outcome.timedOut()) {
+                        publishStatus(statusBox, "❌ " + name + " timed out after " + outcome.elapsedMillis() / 1000 + "s.");
+                    } else {
+                        publishStatus(statusBox, "❌ " + name + " error: " + outcome.error().getMessage());
+                        System.err.println("[" + name + "] search exception: " + outcome.error().getMessage());
+                    }
+                });
+                if (session.duplicatesDropped() > 0) {
+                    System.out.println("[Search] " + session.duplicatesDropped() + " duplicate posts hidden so far");
+                }
+                return null;
+            }
+        };
+    }
+
+    // "bluesky" -> "Bluesky", "mastodon@fosstodon.org" -> "Mastodon (fosstodon.org)"
+    private static String sourceLabel(String sourceId) {
+        if ("bluesky".equals(sourceId)) return "Bluesky";
+        int at = sourceId.indexOf('@');
+        return at < 0 ? "Mastodon" : "Mastodon (" + sourceId.substring(at + 1) + ")";
+    }
+
+    // Called by list cells as rows are shown; prefetches the next page near the bottom
+    private void onRowShown(int index) {
+        SearchSession session = currentSession;
+        if (session == null || resultsList.getItems() != currentPosts) return;
+        currentShownMax = Math.max(currentShownMax, index);
+        if (index < currentPosts.size() - PREFETCH_ROWS) return;
+        if (!session.hasMore() || session.isLoading() || session.pagesLoaded() == 0) return;
+        new Thread(loadPageTask(session, currentPosts, currentStatusBox)).start();
+    }
+
+    // Merges a sorted batch into the rows the user has not seen yet, so the list stays in
+    // ranking order without moving anything already on screen. Cells are only created for
+    // visible rows, so rewriting the unseen tail is cheap.
+    private void publishPosts(ObservableList<Post> posts, java.util.List<Post> batch, Ranking ranking) {
+        if (batch.isEmpty()) return;
+        Platform.runLater(() -> {
+            int stable = posts == currentPosts ? Math.min(posts.size(), currentShownMax + 1) : 0;
+            java.util.List<Post> tail = new java.util.ArrayList<>(posts.subList(stable, posts.size()));
+            java.util.List<Post> merged = ranking.merge(tail, batch);
+            posts.remove(stable, posts.size());
+            posts.addAll(merged);
+        });
+    }
+
+    private void publishStatus(VBox statusBox, String message) {
+        Platform.runLater(() -> {
+            Label label = new Label(message);
+            styleMessageLabel(label);
+            statusBox.getChildren().add(label);
+        });
+    }
+
+    private static void styleMessageLabel(Label label) {
+        label.setWrapText(true);
+        label.setTextAlignment(javafx.scene.text.TextAlignment.CENTER);  // Center text
+        label.setAlignment(Pos.CENTER);  // Center the label itself
+        
+        // Different styling for different message types
+        String text = label.getText();
+        if (text.contains("⏳")) {  // Loading message
+            label.setStyle("-fx-padding: 10; -fx-background-color: #e8f5e9; -fx-background-radius: 5; -fx-text-fill: #000000;");
+        } else if (text.contains("❌")) {  // Error messages
+            label.setStyle("-fx-padding: 10; -fx-background-color: #ffebee; -fx-text-fill: #c62828; -fx-background-radius: 5;");
+        } else if (text.contains("🔵") && text.contains("No results")) {        // Bluesky no results
+            label.setStyle("-fx-padding: 10; -fx-background-color: #e3f2fd; -fx-text-fill: #1565c0; -fx-background-radius: 5;");
+        } else if (text.contains("🔵") && text.contains("Bluesky Results")) {  // Bluesky results
+            label.setStyle("-fx-padding: 10; -fx-background-color: #e3f2fd; -fx-text-fill: #1565c0; -fx-background-radius: 5;");
+        } else if (text.contains("🐘") && text.contains("No results")) {        // Mastodon no results
+            label.setStyle("-fx-padding: 10; -fx-background-color: #ede7f6; -fx-text-fill: #4527a0; -fx-background-radius: 5;");
+        } else if (text.contains("🐘") && text.contains("Mastodon Results")) {  // Mastodon  results
+            label.setStyle("-fx-padding: 10; -fx-background-color: #ede7f6; -fx-text-fill: #4527a0; -fx-background-radius: 5;");
+        } else {  // Other messages
+            label.setStyle("-fx-padding: 10; -fx-background-color: white; -fx-background-radius: 5; -fx-text-fill: #0034ddff;");
+        }
+        
+        label.setMaxWidth(Double.MAX_VALUE);
+    }
+
     public void showSearchResults(Node results) {
+        showSearchResults(results, FXCollections.observableArrayList());
+    }
+
+    // Show a status node above the list and switch the list to a new backing model
+    public void showSearchResults(Node results, ObservableList<Post> posts) {
         Platform.runLater(() -> {
-            resultsArea.getChildren().clear();
+            statusArea.getChildren().clear();
+            resultsList.setItems(posts);
             if (results != null) {
                 // Make results expand to fill available width
                 if (results instanceof Region) {
@@ -545,56 +825,24 @@ public class HomePage extends BorderPane {
                     // Style each child node to show full text
                     for (Node child : box.getChildren()) {
                         if (child instanceof Label) {
-                            Label label = (Label) child;
-                            label.setWrapText(true);
-                            label.setTextAlignment(javafx.scene.text.TextAlignment.CENTER);  // Center text
-                            label.setAlignment(Pos.CENTER);  // Center the label itself
-                            
-                            // Different styling for different message types
-                            String text = label.getText();
-                            if (text.contains("⏳")) {  // Loading message
-                                label.setStyle("-fx-padding: 10; -fx-background-color: #e8f5e9; -fx-background-radius: 5; -fx-text-fill: #000000;");
-                            } else if (text.contains("❌")) {  // Error messages
-                                label.setStyle("-fx-padding: 10; -fx-background-color: #ffebee; -fx-text-fill: #c62828; -fx-background-radius: 5;");
-                            } else if (text.contains("🔵") && text.contains("No results")) {        // Bluesky no results
-                                label.setStyle("-fx-padding: 10; -fx-background-color: #e3f2fd; -fx-text-fill: #1565c0; -fx-background-radius: 5;");
-                            } else if (text.contains("🔵") && text.contains("Bluesky Results")) {  // Bluesky results
-                                label.setStyle("-fx-padding: 10; -fx-background-color: #e3f2fd; -fx-text-fill: #1565c0; -fx-background-radius: 5;");
-                            } else if (text.contains("🐘") && text.contains("No results")) {        // Mastodon no results
-                                label.setStyle("-fx-padding: 10; -fx-background-color: #ede7f6; -fx-text-fill: #4527a0; -fx-background-radius: 5;");
-                            } else if (text.contains("🐘") && text.contains("Mastodon Results")) {  // Mastodon  results
-                                label.setStyle("-fx-padding: 10; -fx-background-color: #ede7f6; -fx-text-fill: #4527a0; -fx-background-radius: 5;");
-                            } else {  // Other messages
-                                label.setStyle("-fx-padding: 10; -fx-background-color: white; -fx-background-radius: 5; -fx-text-fill: #0034ddff;");
-                            }
-                            
-                            label.setMaxWidth(Double.MAX_VALUE);
+                            styleMessageLabel((Label) child);
                         }
                     }
                 }
                 
-                // Center the results in the available space
-                ScrollPane scrollPane = new ScrollPane(results);
-                scrollPane.setFitToWidth(true);
-                scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
-                
-                StackPane centeringPane = new StackPane(scrollPane);
-                centeringPane.setAlignment(Pos.TOP_CENTER);
-                VBox.setVgrow(centeringPane, Priority.ALWAYS);
-                
-                resultsArea.getChildren().add(centeringPane);
+                statusArea.getChildren().add(results);
             }
         });
     }
     public static void debugBlueskyToken(String token) throws Exception {
-    HttpClient client = HttpClient.newHttpClient();
     HttpRequest req = HttpRequest.newBuilder()
         .uri(URI.create("https://bsky.social/xrpc/com.atproto.server.getSession"))
         .header("Authorization", "Bearer " + token)
         .POST(HttpRequest.BodyPublishers.noBody()) // xrpc endpoints are POST
+        .timeout(HttpTransport.requestTimeout())
         .build();
 
-    HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
+    HttpResponse<String> resp = HttpTransport.client().send(req, HttpResponse.BodyHandlers.ofString());
     System.out.println("getSession HTTP " + resp.statusCode() + " body=" + resp.body());
 }
     public void setMastodonHandle(String handle) {
@@ -17,10 +17,15 @@ import javafx.application.Platform;
 
 import org.json.JSONObject;
 
+import app.net.CachedHttp;
+import app.net.HttpTransport;
+
 import searchapp.BlueskyUtil;
-import searchapp.DPoPUtil;
+import searchapp.DPoPSession;
 import searchapp.LocalCallbackServer;
 import searchapp.PkceUtil;
+import searchapp.SessionStore;
+import searchapp.TokenManager;
 
 import java.io.IOException;
 import java.net.URI;
@@ -42,6 +47,9 @@ public class MainPage extends Application {
     private String blueskyAcct = "";
     private HomePage currentHomePage;
 
+    // Handles rarely change; profile lookups are served from the disk cache for this long
+    private static final java.time.Duration PROFILE_FRESHNESS = java.time.Duration.ofHours(24);
+
     static String nz(String s, String fallback) {
         return (s == null || s.isBlank()) ? fallback : s;
     }
@@ -78,11 +86,12 @@ public class MainPage extends Application {
             var req = java.net.http.HttpRequest.newBuilder()
                 .uri(java.net.URI.create(url))
                 .header("Accept", "application/json")
+                .timeout(HttpTransport.requestTimeout())
                 .GET().build();
-            return java.net.http.HttpClient.newHttpClient()
-                .sendAsync(req, java.net.http.HttpResponse.BodyHandlers.ofString())
+            return CachedHttp.sendAsync(req, PROFILE_FRESHNESS)
                 .thenApply(resp -> {
-                    System.out.println("[BLSKY] getProfile(" + actor + ") HTTP " + resp.statusCode());
+                    System.out.println("[BLSKY] getProfile(" + actor + ") HTTP " + resp.statusCode()
+                        + (resp.fromCache() ? " (cached)" : ""));
                     if (resp.statusCode() == 200) {
                         var obj = new org.json.JSONObject(resp.body());
                         return obj.optString("handle", "");
@@ -105,9 +114,9 @@ public class MainPage extends Application {
             var req = java.net.http.HttpRequest.newBuilder()
                 .uri(java.net.URI.create(url))
                 .header("Accept", "application/json")
+                .timeout(HttpTransport.requestTimeout())
                 .GET().build();
-            return java.net.http.HttpClient.newHttpClient()
-                .sendAsync(req, java.net.http.HttpResponse.BodyHandlers.ofString())
+            return CachedHttp.sendAsync(req, PROFILE_FRESHNESS)
                 .thenApply(resp -> {
                     System.out.println("[BLSKY] searchActors(" + query + ") HTTP " + resp.statusCode());
                     if (resp.statusCode() == 200) {
@@ -195,8 +204,18 @@ public class MainPage extends Application {
         BorderPane.setMargin(statusLabel, new Insets(10));
         root.setStyle("-fx-background-color: #f0f8ff;");
 
-        // Show Platform Selector (Buttons)
-        showPlatformSelector();
+        // Saved sessions open the home page directly; otherwise show the Platform Selector (Buttons)
+        TokenManager.shared().onRefresh((key, tokens) -> {
+            if (TokenManager.BLUESKY.equals(key)) SessionStore.updateBlueskyTokens(tokens);
+        });
+        // A refresh token the server refused will never work again; drop the saved session like a revoked Mastodon token
+        TokenManager.shared().onRejected(key -> {
+            if (!TokenManager.BLUESKY.equals(key)) return;
+            SessionStore.clearBluesky();
+            TokenManager.shared().forget(TokenManager.BLUESKY);
+            Platform.runLater(() -> statusLabel.setText("⚠ Bluesky session expired — please log in again."));
+        });
+        if (!restoreSessions()) showPlatformSelector();
 
 
         Scene scene = new Scene(root, 800, 500);
@@ -269,7 +288,7 @@ public class MainPage extends Application {
                 String codeChallenge = PkceUtil.generateCodeChallenge(codeVerifier);
 
                 final String parUrl = "https://bsky.social/oauth/par";
-                String clientId = "https://grjimenez.github.io/bluesky-oauth-client/client-metadata.json";
+                String clientId = BlueskyUtil.CLIENT_ID;
                 String redirectUri = "http://127.0.0.1:8080/callback";
                 String state = "random-state-value"; // Generate a random state value for CSRF protection
 
@@ -279,47 +298,16 @@ public class MainPage extends Application {
                     clientId, redirectUri, state, codeChallenge
                 );
 
-                HttpClient client = HttpClient.newHttpClient();
-
-                // First attempt
-                String dpop1 = DPoPUtil.buildDPoP("POST", parUrl, null);
-                HttpRequest firstRequest = HttpRequest.newBuilder()
-                        .uri(URI.create(parUrl))
-                        .header("Content-Type", "application/x-www-form-urlencoded")
-                        .header("DPoP", dpop1)
-                        .POST(HttpRequest.BodyPublishers.ofString(parBody))
-                        .build();
-
-                client.sendAsync(firstRequest, HttpResponse.BodyHandlers.ofString())
-                        .thenCompose(resp -> {
-                            System.out.println("[PAR#1] " + resp.statusCode());
-                            System.out.println("[PAR#1] headers=" + resp.headers().map());
-                            System.out.println("[PAR#1] body=" + resp.body());
-
-                            boolean is401 = resp.statusCode() == 401;
-                            boolean isNonce400 = resp.statusCode() == 400 && resp.body() != null && resp.body().contains("\"use_dpop_nonce\"");
-                            if (is401 || isNonce400) {
-                                String nonce = resp.headers().firstValue("DPoP-Nonce")
-                                        .orElse(resp.headers().firstValue("dpop-nonce").orElse(""));
-                                if (!nonce.isEmpty()) {
-                                    String dpop2 = DPoPUtil.buildDPoP("POST", parUrl, nonce);
-                                    HttpRequest retryRequest = HttpRequest.newBuilder()
-                                            .uri(URI.create(parUrl))
-                                            .header("Content-Type", "application/x-www-form-urlencoded")
-                                            .header("DPoP", dpop2)
-                                            .POST(HttpRequest.BodyPublishers.ofString(parBody))
-                                            .build();
-                                    return client.sendAsync(retryRequest, HttpResponse.BodyHandlers.ofString())
-                                            .thenApply(r -> {
-                                                System.out.println("[PAR#2] " + r.statusCode());
-                                                System.out.println("[PAR#2] headers=" + r.headers().map());
-                                                System.out.println("[PAR#2] body=" + r.body());
-                                                return r;
-                                            });
-                                }
-                            }
-                            return java.util.concurrent.CompletableFuture.completedFuture(resp);
-                        })
+                HttpClient client = HttpTransport.client();
+
+                // DPoPSession reuses the server's last nonce and retries only if it was rejected
+                DPoPSession.shared().sendAsync(client, "POST", parUrl, dpop -> HttpRequest.newBuilder()
+                                .uri(URI.create(parUrl))
+                                .header("Content-Type", "application/x-www-form-urlencoded")
+                                .header("DPoP", dpop)
+                                .POST(HttpRequest.BodyPublishers.ofString(parBody))
+                                .timeout(HttpTransport.requestTimeout())
+                                .build())
                         .thenAccept(response -> {
                             int sc = response.statusCode();
                             String body = response.body();
@@ -426,6 +414,11 @@ public class MainPage extends Application {
                                                 // Persist Bluesky token/handle to this MainPage instance so other flows see it
                                                 MainPage.this.blueskyAccessToken = tokenSet.accessToken;
                                                 MainPage.this.blueskyAcct = finalHandle;
+                                                // refreshed in the background before it expires, and kept for the next launch
+                                                TokenManager.Tokens tokens = TokenManager.Tokens.of(tokenSet);
+                                                trackBluesky(tokens, true);
+                                                SessionStore.saveBluesky(new SessionStore.BlueskySession(tokens.accessToken(),
+                                                        tokens.refreshToken(), tokens.expiresAt(), true, finalHandle));
                                                 System.out.println("[STATE] Saved Bluesky (OAuth): token? " + (MainPage.this.blueskyAccessToken != null) + " acct=" + MainPage.this.blueskyAcct);
 
                                                 Platform.runLater(() -> {
@@ -441,7 +434,8 @@ public class MainPage extends Application {
                                                            mastodonAcct,
                                                            MainPage.this::showPlatformSelector,
                                                            MainPage.this::showBlueskyLoginForm,
-                                                           MainPage.this::showMastodonLoginForm
+                                                           MainPage.this::showMastodonLoginForm,
+                                                           MainPage.this::signOut
                                                        );                                                     root.setCenter(currentHomePage);
                                                       System.out.println("[STATE] HomePage setCenter OK");
                                                    } catch (Throwable t) {
@@ -460,7 +454,8 @@ public class MainPage extends Application {
                                                         mastodonAcct,
                                                         MainPage.this::showPlatformSelector,
                                                         MainPage.this::showBlueskyLoginForm,
-                                                        MainPage.this::showMastodonLoginForm
+                                                        MainPage.this::showMastodonLoginForm,
+                                                        MainPage.this::signOut
                                                     );
                                                     root.setCenter(currentHomePage);
                                                 });
@@ -507,7 +502,8 @@ public class MainPage extends Application {
                         mastodonAcct,
                         MainPage.this::showPlatformSelector,
                         MainPage.this::showBlueskyLoginForm,
-                        MainPage.this::showMastodonLoginForm
+                        MainPage.this::showMastodonLoginForm,
+                        MainPage.this::signOut
                     );
                 }
                 root.setCenter(currentHomePage);
@@ -522,15 +518,6 @@ public class MainPage extends Application {
         loginFormContainer.getChildren().add(form);
         root.setCenter(loginFormContainer);
     }
-    private String extractNonce(String wwwAuthenticate) {
-        try {
-            int start = wwwAuthenticate.indexOf("nonce=\"") + 7;
-            int end = wwwAuthenticate.indexOf("\"", start);
-            return wwwAuthenticate.substring(start, end);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to extract DPoP nonce", e);
-        }
-    }
     
     
 
@@ -571,7 +558,8 @@ public class MainPage extends Application {
                         mastodonAcct,
                         MainPage.this::showPlatformSelector,
                         MainPage.this::showBlueskyLoginForm,
-                        MainPage.this::showMastodonLoginForm
+                        MainPage.this::showMastodonLoginForm,
+                        MainPage.this::signOut
                     );
                 }
                 root.setCenter(currentHomePage);
@@ -600,10 +588,15 @@ public class MainPage extends Application {
                         // persist mastodon session into instance fields
                         MainPage.this.mastodonAccessToken = session.accessToken;
                         MainPage.this.mastodonInstance = session.instance;
+                        // Mastodon access tokens do not expire; tracked so searches read tokens from one place
+                        TokenManager.shared().track(TokenManager.mastodonKey(session.instance),
+                                new TokenManager.Tokens(session.accessToken, null, null), null);
                         MainPage.this.mastodonAcct = session.account.acct != null ? session.account.acct : session.account.username;
                         MainPage.this.mastodonDisplayName = (session.account.displayName != null && !session.account.displayName.isBlank())
                                 ? session.account.displayName
                                 : session.account.username;
+                        SessionStore.saveMastodon(new SessionStore.MastodonSession(session.instance, session.accessToken,
+                                MainPage.this.mastodonAcct, MainPage.this.mastodonDisplayName));
 
                         // UI feedback
                         String acctShown = MainPage.this.mastodonAcct.startsWith("@") ? MainPage.this.mastodonAcct : "@" + MainPage.this.mastodonAcct;
@@ -667,7 +660,8 @@ public class MainPage extends Application {
                                     MainPage.this.mastodonAcct,
                                     MainPage.this::showPlatformSelector,
                                     MainPage.this::showBlueskyLoginForm,
-                                    MainPage.this::showMastodonLoginForm
+                                    MainPage.this::showMastodonLoginForm,
+                                    MainPage.this::signOut
                             );
                             root.setCenter(currentHomePage);
                         }
@@ -706,6 +700,97 @@ public class MainPage extends Application {
             -fx-padding: 8;
         """);
     }
+    /**
+     * Restores the accounts saved by {@link SessionStore} and shows the home page without
+     * contacting any server. Returns false when nothing was saved.
+     */
+    private boolean restoreSessions() {
+        SessionStore.Saved saved = SessionStore.load();
+        if (saved.isEmpty()) return false;
+        SessionStore.BlueskySession b = saved.bluesky();
+        if (b != null) {
+            blueskyAccessToken = b.accessToken();
+            blueskyAcct = nz(b.handle(), "");
+            // an expired token is refreshed right away, before the first search needs it
+            trackBluesky(new TokenManager.Tokens(b.accessToken(), b.refreshToken(), b.expiresAt()), b.oauth());
+        }
+        SessionStore.MastodonSession m = saved.mastodon();
+        if (m != null) {
+            mastodonAccessToken = m.accessToken();
+            mastodonInstance = m.instance();
+            mastodonAcct = m.acct();
+            mastodonDisplayName = m.displayName();
+            TokenManager.shared().track(TokenManager.mastodonKey(m.instance()),
+                    new TokenManager.Tokens(m.accessToken(), null, null), null);
+            verifyMastodonInBackground(m);
+        }
+        String platform = saved.platform() != null ? saved.platform() : (b != null ? "bluesky" : "mastodon");
+        System.out.println("[STATE] Restored sessions -> BSKY: " + (b != null) + " MASTO: " + (m != null));
+        statusLabel.setText("✅ Welcome back");
+        currentHomePage = new HomePage(
+                platform,
+                blueskyAccessToken,
+                mastodonAccessToken,
+                mastodonInstance,
+                blueskyAcct,
+                mastodonAcct,
+                MainPage.this::showPlatformSelector,
+                MainPage.this::showBlueskyLoginForm,
+                MainPage.this::showMastodonLoginForm,
+                MainPage.this::signOut
+        );
+        root.setCenter(currentHomePage);
+        return true;
+    }
+
+    // Sign out of every account: forget the saved sessions and tokens and go back to the platform selector
+    private void signOut() {
+        SessionStore.clearBluesky();
+        SessionStore.clearMastodon();
+        TokenManager.shared().forget(TokenManager.BLUESKY);
+        if (mastodonInstance != null) TokenManager.shared().forget(TokenManager.mastodonKey(mastodonInstance));
+        blueskyAccessToken = null;
+        blueskyAcct = "";
+        mastodonAccessToken = null;
+        mastodonInstance = null;
+        mastodonAcct = null;
+        mastodonDisplayName = null;
+        currentHomePage = null;
+        statusLabel.setText("Signed out");
+        showPlatformSelector();
+    }
+
+    // A revoked Mastodon token is dropped from the store so the next launch asks to log in again
+    private void verifyMastodonInBackground(SessionStore.MastodonSession m) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("https://" + m.instance() + "/api/v1/accounts/verify_credentials"))
+                .header("Authorization", "Bearer " + m.accessToken())
+                .timeout(HttpTransport.requestTimeout())
+                .GET()
+                .build();
+        HttpTransport.client().sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(resp -> {
+                    if (resp.statusCode() != 401) return;
+                    SessionStore.clearMastodon();
+                    TokenManager.shared().forget(TokenManager.mastodonKey(m.instance()));
+                    Platform.runLater(() -> statusLabel.setText("⚠ Mastodon session expired — please log in again."));
+                })
+                .exceptionally(e -> null); // offline: keep the session and let searches report errors
+    }
+
+    // Tracks the Bluesky session so its token is refreshed before it expires
+    private static void trackBluesky(TokenManager.Tokens tokens, boolean oauth) {
+        TokenManager.shared().track(TokenManager.BLUESKY, tokens, oauth
+                ? current -> BlueskyUtil.refreshAccessToken(current.refreshToken(), BlueskyUtil.CLIENT_ID)
+                        .thenApply(TokenManager.Tokens::of)
+                : current -> BlueskyUtil.refreshSession(current.refreshToken())
+                        .thenApply(TokenManager.Tokens::of));
+    }
+
+    private static java.time.Instant expiryOf(long secondsLeft) {
+        return secondsLeft > 0 ? java.time.Instant.now().plusSeconds(secondsLeft) : null;
+    }
+
     private static String maskToken(String t) {
         if (t == null || t.isBlank()) return "(no-token)";
         if (t.length() <= 12) return t;
@@ -787,11 +872,12 @@ public class MainPage extends Application {
         String apiUrl = "https://bsky.social/xrpc/com.atproto.server.createSession";
         String jsonBody = String.format("{\"identifier\":\"%s\",\"password\":\"%s\"}", username, appPassword);
 
-        HttpClient client = HttpClient.newHttpClient();
+        HttpClient client = HttpTransport.client();
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(apiUrl))
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                .timeout(HttpTransport.requestTimeout())
                 .build();
 
         client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
@@ -803,6 +889,9 @@ public class MainPage extends Application {
                         JSONObject obj = new JSONObject(responseBody);
 
                         blueskyAccessToken = obj.getString("accessJwt");
+                        TokenManager.Tokens tokens = new TokenManager.Tokens(blueskyAccessToken,
+                                obj.optString("refreshJwt", null), expiryOf(BlueskyUtil.secondsUntilExpiry(blueskyAccessToken)));
+                        trackBluesky(tokens, false);
                         String did = obj.optString("did", "");
                         String handle = obj.optString("handle", "");
                         System.out.println("[BLSKY] tokens parsed. did=" + did + " handle=" + handle);
@@ -810,6 +899,8 @@ public class MainPage extends Application {
                         // Use canonical handle from server; fallback to input username if missing
                         blueskyAcct = (!handle.isBlank()) ? handle : username;
                         blueskyAcct = stripBskySuffix(blueskyAcct);
+                        SessionStore.saveBluesky(new SessionStore.BlueskySession(tokens.accessToken(),
+                                tokens.refreshToken(), tokens.expiresAt(), false, blueskyAcct));
                         System.out.println("[BLSKY] resolved acct=" + blueskyAcct);
 
                         Platform.runLater(() -> {
@@ -824,7 +915,8 @@ public class MainPage extends Application {
                                 mastodonAcct,
                                 MainPage.this::showPlatformSelector,
                                 MainPage.this::showBlueskyLoginForm,
-                                MainPage.this::showMastodonLoginForm
+                                MainPage.this::showMastodonLoginForm,
+                                MainPage.this::signOut
                             );
                             root.setCenter(currentHomePage);
                         });
@@ -851,11 +943,12 @@ public class MainPage extends Application {
                 clientId, clientSecret, redirectUri, code
             );
 
-            HttpClient client = HttpClient.newHttpClient();
+            HttpClient client = HttpTransport.client();
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(tokenUrl))
                     .header("Content-Type", "application/x-www-form-urlencoded")
                     .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .timeout(HttpTransport.requestTimeout())
                     .build();
 
             client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
@@ -873,7 +966,8 @@ public class MainPage extends Application {
                                     mastodonAcct,
                                     MainPage.this::showPlatformSelector, 
                                     MainPage.this::showBlueskyLoginForm, 
-                                    MainPage.this::showMastodonLoginForm
+                                    MainPage.this::showMastodonLoginForm,
+                                    MainPage.this::signOut
                                 );
                                 root.setCenter(currentHomePage); 
                             });
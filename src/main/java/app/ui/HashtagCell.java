@@ -0,0 +1,56 @@
+package app.ui;
+
+import app.model.Hashtag;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+
+import java.util.function.Consumer;
+
+/**
+ * ListView cell for hashtag results: the tag and its recent usage. Clicking hands the
+ * tag to {@code onOpen}, e.g. to search its posts.
+ */
+public class HashtagCell extends ListCell<Hashtag> {
+
+    private final Label tagLbl = new Label();
+    private final Label usesLbl = new Label();
+    private final HBox row;
+
+    public HashtagCell(Consumer<Hashtag> onOpen) {
+        tagLbl.setStyle("-fx-font-weight: 700; -fx-font-size: 14px; -fx-text-fill: #1d4ed8;");
+        usesLbl.setStyle("-fx-text-fill: #667085; -fx-font-size: 12px;");
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        row = new HBox(10, tagLbl, spacer, usesLbl);
+        row.setAlignment(Pos.CENTER_LEFT);
+        row.setPadding(new Insets(10));
+        row.setMaxWidth(720);
+        row.setStyle("-fx-background-color: white; -fx-background-radius: 12; -fx-cursor: hand;");
+
+        setPrefWidth(0);
+        setAlignment(Pos.CENTER);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setStyle("-fx-background-color: transparent; -fx-padding: 4 8;");
+        setOnMouseClicked(e -> {
+            if (getItem() != null) onOpen.accept(getItem());
+        });
+    }
+
+    @Override
+    protected void updateItem(Hashtag tag, boolean empty) {
+        super.updateItem(tag, empty);
+        if (empty || tag == null) {
+            setGraphic(null);
+            return;
+        }
+        tagLbl.setText("#" + tag.name());
+        usesLbl.setText(tag.recentUses() == null ? "seen in results" : tag.recentUses() + " posts recently");
+        setGraphic(row);
+    }
+}
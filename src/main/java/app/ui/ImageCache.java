@@ -0,0 +1,150 @@
+package app.ui;
+
+import app.net.CachedHttp;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.stage.Screen;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared cache of decoded images keyed by URL and decode size, bounded by decoded pixel memory.
+ *
+ * Every card asks the cache instead of constructing its own {@link Image}, so an author's
+ * avatar is downloaded and decoded once and then reused by every card that shows it.
+ * Concurrent requests for a URL that is still loading share the same pending load, and
+ * every ImageView waiting for it is updated when it finishes. Least recently used images
+ * are dropped once the budget is exceeded; images still shown on screen stay alive through
+ * their ImageViews and are simply reloaded if needed again.
+ *
+ * Images are decoded at the size they are displayed at (times the screen's output scale),
+ * not at full resolution, so a 40px avatar costs a few KB of pixels instead of megabytes.
+ *
+ * The encoded bytes are fetched once through {@link CachedHttp#fetchBytesAsync}, which keeps
+ * them in the on-disk cache: an image seen in an earlier run is decoded from the local copy
+ * instead of being downloaded again. Disk reads, downloads and decoding all happen off the
+ * FX thread.
+ *
+ * Budget: system property searchapp.imageCache.maxMB (default 64).
+ */
+public final class ImageCache {
+
+    private static final ImageCache SHARED =
+            new ImageCache(Long.getLong("searchapp.imageCache.maxMB", 64) * 1024 * 1024);
+
+    // ImageView property holding the key of the image the view currently wants
+    private static final Object VIEW_KEY = new Object();
+
+    private record Entry(Image image, long bytes) {}
+
+    private final long maxBytes;
+    // access order so iteration starts at the least recently used image
+    private final LinkedHashMap<String, Entry> images = new LinkedHashMap<>(64, 0.75f, true);
+    // loads still in flight, so concurrent requests for one key share a single fetch
+    private final Map<String, CompletableFuture<Image>> pending = new HashMap<>();
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    public ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static ImageCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Shows the image for {@code url} in {@code view}, decoded to fit {@code width} x
+     * {@code height} display pixels (aspect ratio preserved; 0 leaves that dimension
+     * unconstrained). A cached image is set immediately; otherwise the view is cleared and
+     * filled in once the background load finishes, unless it has been asked for another
+     * image in the meantime (recycled cells). Blank URLs just clear the view.
+     * Must be called on the FX thread.
+     */
+    public void load(ImageView view, String url, double width, double height) {
+        if (url == null || url.isBlank()) {
+            view.getProperties().remove(VIEW_KEY);
+            view.setImage(null);
+            return;
+        }
+
+        double scale = outputScale();
+        double w = Math.ceil(width * scale);
+        double h = Math.ceil(height * scale);
+        String key = url + "#" + (int) w + "x" + (int) h;
+        view.getProperties().put(VIEW_KEY, key);
+
+        Entry cached = images.get(key);
+        if (cached != null) {
+            hits++;
+            view.setImage(cached.image());
+            return;
+        }
+        misses++;
+        view.setImage(null);
+
+        pending.computeIfAbsent(key, k -> fetch(k, url, w, h))
+                .thenAccept(image -> Platform.runLater(() -> {
+                    if (key.equals(view.getProperties().get(VIEW_KEY))) view.setImage(image);
+                }));
+    }
+
+    private CompletableFuture<Image> fetch(String key, String url, double w, double h) {
+        CompletableFuture<Image> load = CachedHttp.fetchBytesAsync(url)
+                .thenApply(bytes -> new Image(new ByteArrayInputStream(bytes), w, h, true, true));
+        load.whenComplete((image, error) -> Platform.runLater(() -> {
+            pending.remove(key);
+            // failed loads are not remembered, so the next card retries
+            if (image != null && !image.isError()) store(key, image);
+        }));
+        return load.thenApply(image -> image.isError() ? null : image)
+                .exceptionally(e -> null);
+    }
+
+    private static double outputScale() {
+        try {
+            return Math.max(1.0, Screen.getPrimary().getOutputScaleX());
+        } catch (Exception e) {
+            return 1.0;
+        }
+    }
+
+    private void store(String key, Image image) {
+        Entry entry = new Entry(image, sizeOf(image));
+        Entry old = images.put(key, entry);
+        if (old != null) usedBytes -= old.bytes();
+        usedBytes += entry.bytes();
+        trim();
+    }
+
+    private void trim() {
+        Iterator<Entry> it = images.values().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            usedBytes -= it.next().bytes();
+            it.remove();
+        }
+    }
+
+    // decoded size: 4 bytes per pixel (BGRA)
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4L;
+    }
+
+    public void clear() {
+        images.clear();
+        usedBytes = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "images=" + images.size() + " usedMB=" + (usedBytes / (1024 * 1024))
+                + " hits=" + hits + " misses=" + misses;
+    }
+}
@@ -0,0 +1,52 @@
+package app.ui;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * Shows a post's image at full resolution in its own window. Cards only hold downscaled
+ * thumbnails; the full-size decode happens here, on demand, and is released when the window closes.
+ */
+public final class MediaViewer {
+
+    private MediaViewer() {}
+
+    public static void show(String url, Window owner) {
+        if (url == null || url.isBlank()) return;
+
+        Image full;
+        try {
+            full = new Image(url, true);
+        } catch (Exception e) {
+            System.err.println("Error opening image: " + e.getMessage());
+            return;
+        }
+
+        ImageView view = new ImageView(full);
+        view.setPreserveRatio(true);
+        view.setSmooth(true);
+
+        StackPane root = new StackPane(view);
+        root.setStyle("-fx-background-color: #111111;");
+        view.fitWidthProperty().bind(root.widthProperty());
+        view.fitHeightProperty().bind(root.heightProperty());
+
+        Rectangle2D screen = Screen.getPrimary().getVisualBounds();
+        Stage stage = new Stage();
+        if (owner != null) stage.initOwner(owner);
+        stage.setTitle("Image");
+        stage.setScene(new Scene(root, screen.getWidth() * 0.7, screen.getHeight() * 0.7));
+        stage.setOnHidden(e -> {
+            // stop a download still in progress and let the pixels be collected
+            full.cancel();
+            view.setImage(null);
+        });
+        stage.show();
+    }
+}
@@ -0,0 +1,148 @@
+package app.ui;
+
+import app.model.Post;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.OverrunStyle;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Circle;
+
+/**
+ * A single post card. The node tree is built once and {@link #show(Post)} rebinds it,
+ * so list cells can recycle one card across many posts.
+ */
+public class PostCardView extends VBox {
+
+    private static final double AVATAR_SIZE = 40;
+    private static final double MEDIA_WIDTH = 680;
+
+    private final ImageView avatar = new ImageView();
+    private final Label nameLbl = new Label();
+    private final Label metaLbl = new Label();
+    private final Label platformPill = new Label();
+    private final Label textLbl = new Label();
+    private final ImageView media = new ImageView();
+    private final Label likes = new Label();
+    private final Label reposts = new Label();
+    private final Button viewOriginalBtn = new Button();
+
+    public PostCardView() {
+        super(6);
+        setPadding(new Insets(10));
+        setMaxWidth(720);
+        setStyle("-fx-background-color: #ffffff; -fx-background-radius: 16; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.08), 10, 0, 0, 2);");
+
+        HBox header = new HBox(10);
+        header.setAlignment(Pos.CENTER_LEFT);
+
+        avatar.setFitWidth(AVATAR_SIZE);
+        avatar.setFitHeight(AVATAR_SIZE);
+        avatar.setPreserveRatio(true);
+        avatar.setSmooth(true);
+        avatar.setClip(new Circle(20, 20, 20));
+
+        VBox who = new VBox(2);
+        nameLbl.setStyle("-fx-font-weight: 700; -fx-font-size: 13px; -fx-text-fill: #000000;");
+        metaLbl.setStyle("-fx-text-fill: #667085; -fx-font-size: 12px;");
+        who.getChildren().addAll(nameLbl, metaLbl);
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        platformPill.setStyle("-fx-background-color: #eef2ff; -fx-text-fill: #3730a3; -fx-padding: 2 8; -fx-background-radius: 999; -fx-font-size: 11px;");
+
+        header.getChildren().addAll(avatar, who, spacer, platformPill);
+
+        textLbl.setWrapText(true);
+        textLbl.setStyle("-fx-font-size: 13px; -fx-text-fill: #000000;");
+        textLbl.setMaxWidth(680);
+        textLbl.setPadding(new Insets(4, 0, 4, 0));
+        textLbl.setTextOverrun(OverrunStyle.WORD_ELLIPSIS);
+
+        media.setPreserveRatio(true);
+        media.setFitWidth(MEDIA_WIDTH);
+        media.setSmooth(true);
+        media.setStyle("-fx-background-color:#f2f2f2; -fx-background-radius: 12;");
+        // only takes space when the post has an image
+        media.managedProperty().bind(media.visibleProperty());
+        media.setStyle(media.getStyle() + " -fx-cursor: hand;");
+
+        HBox footer = new HBox(16);
+        footer.setAlignment(Pos.CENTER_LEFT);
+        footer.setPadding(new Insets(2, 0, 0, 0));
+
+        likes.setStyle("-fx-text-fill:#475467; -fx-font-size: 12px;");
+        reposts.setStyle("-fx-text-fill:#475467; -fx-font-size: 12px;");
+
+        Region footerSpacer = new Region();
+        HBox.setHgrow(footerSpacer, Priority.ALWAYS);
+
+        // Add hover effect
+        viewOriginalBtn.setOnMouseEntered(e ->
+            viewOriginalBtn.setStyle(viewOriginalBtn.getStyle() + "-fx-opacity: 0.8;")
+        );
+        viewOriginalBtn.setOnMouseExited(e ->
+            viewOriginalBtn.setStyle(viewOriginalBtn.getStyle().replace("-fx-opacity: 0.8;", ""))
+        );
+
+        footer.getChildren().addAll(likes, reposts, footerSpacer, viewOriginalBtn);
+
+        getChildren().addAll(header, textLbl, media, footer);
+    }
+
+    public PostCardView(Post post) {
+        this();
+        show(post);
+    }
+
+    /** Rebind this card to another post; no nodes are created or removed. */
+    public void show(Post post) {
+        PostCards.CardText t = PostCards.cardText(post);
+        boolean bluesky = t.bluesky();
+
+        // shared cache: the same author's avatar is decoded once for all of their cards
+        ImageCache.shared().load(avatar, post.avatarUrl(), AVATAR_SIZE, AVATAR_SIZE);
+
+        nameLbl.setText(t.name());
+        metaLbl.setText(t.meta());
+        platformPill.setText(t.platform());
+        textLbl.setText(t.text());
+
+        // inline thumbnail is decoded at card width; full resolution only when opened
+        String thumbnailUrl = post.thumbnailUrl();
+        boolean hasMedia = thumbnailUrl != null && !thumbnailUrl.isBlank();
+        ImageCache.shared().load(media, thumbnailUrl, MEDIA_WIDTH, 0);
+        media.setVisible(hasMedia);
+        String fullUrl = post.imageUrl();
+        media.setOnMouseClicked(!hasMedia ? null
+                : e -> MediaViewer.show(fullUrl, getScene() == null ? null : getScene().getWindow()));
+
+        likes.setText(t.likes());
+        reposts.setText(t.reposts());
+
+        viewOriginalBtn.setStyle(
+            "-fx-background-color: " + (bluesky ? "#0085ff" : "#563acc") + ";" +
+            "-fx-text-fill: white;" +
+            "-fx-font-size: 11px;" +
+            "-fx-padding: 4 12;" +
+            "-fx-background-radius: 999;" +
+            "-fx-cursor: hand;"
+        );
+        // Open URL in browser when clicked
+        String postUrl = post.url();
+        if (postUrl != null && !postUrl.isBlank()) {
+            viewOriginalBtn.setText("🔗 View Original");
+            viewOriginalBtn.setDisable(false);
+            viewOriginalBtn.setOnAction(e -> PostCards.openUrlInBrowser(postUrl));
+        } else {
+            viewOriginalBtn.setText("URL not available");
+            viewOriginalBtn.setDisable(true);
+            viewOriginalBtn.setOnAction(null);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package app.ui;
+
+import app.model.Post;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+
+import java.util.function.IntConsumer;
+
+/**
+ * ListView cell that keeps one {@link PostCardView} and rebinds it as the cell is reused,
+ * so only the rows on screen exist as nodes.
+ */
+public class PostCell extends ListCell<Post> {
+
+    private final PostCardView card = new PostCardView();
+    private final IntConsumer onRowShown;
+
+    public PostCell() {
+        this(index -> {});
+    }
+
+    /**
+     * @param onRowShown called with the row index each time a post is bound to this cell,
+     *                   e.g. to prefetch the next page when the user nears the end of the list
+     */
+    public PostCell(IntConsumer onRowShown) {
+        this.onRowShown = onRowShown;
+        // let the list decide the width so long text wraps instead of widening the list
+        setPrefWidth(0);
+        setAlignment(Pos.CENTER);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setStyle("-fx-background-color: transparent; -fx-padding: 8;");
+    }
+
+    @Override
+    protected void updateItem(Post post, boolean empty) {
+        super.updateItem(post, empty);
+        if (empty || post == null) {
+            setGraphic(null);
+        } else {
+            card.show(post);
+            setGraphic(card);
+            onRowShown.accept(getIndex());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package app.ui;
+
+import app.model.Profile;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Circle;
+
+/**
+ * ListView cell for account results: avatar, name, handle and bio. Clicking opens the
+ * profile in the browser. Like {@link PostCell}, the nodes are built once and rebound.
+ */
+public class ProfileCell extends ListCell<Profile> {
+
+    private static final double AVATAR_SIZE = 36;
+
+    private final ImageView avatar = new ImageView();
+    private final Label nameLbl = new Label();
+    private final Label metaLbl = new Label();
+    private final Label bioLbl = new Label();
+    private final HBox row;
+
+    public ProfileCell() {
+        avatar.setFitWidth(AVATAR_SIZE);
+        avatar.setFitHeight(AVATAR_SIZE);
+        avatar.setPreserveRatio(true);
+        avatar.setClip(new Circle(AVATAR_SIZE / 2, AVATAR_SIZE / 2, AVATAR_SIZE / 2));
+
+        nameLbl.setStyle("-fx-font-weight: 700; -fx-font-size: 13px; -fx-text-fill: #000000;");
+        metaLbl.setStyle("-fx-text-fill: #667085; -fx-font-size: 12px;");
+        bioLbl.setStyle("-fx-font-size: 12px; -fx-text-fill: #344054;");
+        bioLbl.setWrapText(true);
+        bioLbl.setMaxHeight(36);
+
+        VBox text = new VBox(2, nameLbl, metaLbl, bioLbl);
+        row = new HBox(10, avatar, text);
+        row.setAlignment(Pos.TOP_LEFT);
+        row.setPadding(new Insets(10));
+        row.setMaxWidth(720);
+        row.setStyle("-fx-background-color: white; -fx-background-radius: 12; -fx-cursor: hand;");
+
+        setPrefWidth(0);
+        setAlignment(Pos.CENTER);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setStyle("-fx-background-color: transparent; -fx-padding: 4 8;");
+        setOnMouseClicked(e -> {
+            if (getItem() != null) PostCards.openUrlInBrowser(getItem().url());
+        });
+    }
+
+    @Override
+    protected void updateItem(Profile profile, boolean empty) {
+        super.updateItem(profile, empty);
+        if (empty || profile == null) {
+            setGraphic(null);
+            return;
+        }
+        ImageCache.shared().load(avatar, profile.avatarUrl(), AVATAR_SIZE, AVATAR_SIZE);
+        nameLbl.setText(profile.displayName() == null || profile.displayName().isBlank()
+                ? profile.handle() : profile.displayName());
+        String meta = profile.handle() + " · " + ("bluesky".equals(profile.platform()) ? "Bluesky" : "Mastodon");
+        if (profile.followersCount() != null) meta += " · " + profile.followersCount() + " followers";
+        metaLbl.setText(meta);
+        bioLbl.setText(profile.description());
+        bioLbl.setVisible(!profile.description().isBlank());
+        bioLbl.setManaged(bioLbl.isVisible());
+        setGraphic(row);
+    }
+}
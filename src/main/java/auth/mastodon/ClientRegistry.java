@@ -1,5 +1,6 @@
 package auth.mastodon;
 
+import app.net.HttpTransport;
 import org.json.JSONObject;
 import org.json.JSONArray;
 
@@ -8,11 +9,16 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 public class ClientRegistry {
     private static final Path STORE = Paths.get("mastodon_clients.json");
-    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static final HttpClient CLIENT = HttpTransport.client();
+    // read once and kept until the store is rewritten; instances() is called for every search
+    private static volatile List<String> instances;
 
     public static class ClientInfo {
         public final String clientId;
@@ -38,6 +44,18 @@ public class ClientRegistry {
         try {
             Files.writeString(STORE, obj.toString(2), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
         } catch (Exception ignored) {}
+        instances = null;
+    }
+
+    /** Instances this app has registered with, in alphabetical order. */
+    public static List<String> instances() {
+        List<String> cached = instances;
+        if (cached == null) {
+            List<String> sorted = new ArrayList<>(loadStore().keySet());
+            Collections.sort(sorted);
+            cached = instances = List.copyOf(sorted);
+        }
+        return cached;
     }
 
     public static Optional<ClientInfo> get(String instance) {
@@ -65,6 +83,7 @@ public class ClientRegistry {
                 .uri(URI.create(url))
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .timeout(HttpTransport.requestTimeout())
                 .build();
 
         HttpResponse<String> resp = CLIENT.send(req, HttpResponse.BodyHandlers.ofString());
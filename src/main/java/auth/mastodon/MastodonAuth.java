@@ -1,5 +1,6 @@
 package auth.mastodon;
 
+import app.net.HttpTransport;
 import org.json.JSONObject;
 import auth.mastodon.ClientRegistry.ClientInfo;
 
@@ -29,7 +30,7 @@ public class MastodonAuth {
         }
     }
 
-    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final HttpClient HTTP = HttpTransport.client();
 
     public static void startLoginWithHandle(String input, Consumer<MastodonSession> onSuccess, Consumer<String> onError) {
         new Thread(() -> {
@@ -74,6 +75,7 @@ public class MastodonAuth {
                             .uri(URI.create("https://" + instance + "/oauth/token"))
                             .header("Content-Type", "application/json")
                             .POST(HttpRequest.BodyPublishers.ofString(tokenReq.toString()))
+                            .timeout(HttpTransport.requestTimeout())
                             .build();
 
                     HttpResponse<String> tokenResp = HTTP.send(tokenRequest, HttpResponse.BodyHandlers.ofString());
@@ -91,6 +93,7 @@ public class MastodonAuth {
                             .uri(URI.create("https://" + instance + "/api/v1/accounts/verify_credentials"))
                             .header("Authorization", "Bearer " + accessToken)
                             .GET()
+                            .timeout(HttpTransport.requestTimeout())
                             .build();
 
                     HttpResponse<String> verifyResp = HTTP.send(verify, HttpResponse.BodyHandlers.ofString());
@@ -1,5 +1,6 @@
 package searchapp;
 
+import app.net.HttpTransport;
 import com.nimbusds.jose.util.JSONObjectUtils;
 import org.json.JSONObject;
 
@@ -11,13 +12,19 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import com.sun.net.httpserver.HttpServer;
 
 public class BlueskyUtil {
 
+    public static final String CLIENT_ID = "https://grjimenez.github.io/bluesky-oauth-client/client-metadata.json";
+    private static final String TOKEN_URL = "https://bsky.social/oauth/token";
+
     public static void startHttpServer(String codeVerifier, String originalState, BlueskyCallback callback) {
         new Thread(() -> {
             try {
@@ -47,7 +54,7 @@ public class BlueskyUtil {
                     server.stop(0);
 
                     // Exchange the code for tokens
-                    exchangeCodeForTokens(code, codeVerifier, "https://grjimenez.github.io/bluesky-oauth-client/client-metadata.json", "http://127.0.0.1:8080/callback", callback);
+                    exchangeCodeForTokens(code, codeVerifier, CLIENT_ID, "http://127.0.0.1:8080/callback", callback);
                 });
                 server.start();
             } catch (IOException e) {
@@ -74,142 +81,123 @@ public class BlueskyUtil {
 }
 
     public static void exchangeCodeForTokens(String code, String codeVerifier, String clientId, String redirectUri, BlueskyCallback callback) {
+        String body = String.format(
+            "grant_type=authorization_code&client_id=%s&redirect_uri=%s&code=%s&code_verifier=%s",
+            clientId, redirectUri, code, codeVerifier
+        );
+        postToken(body, "Token", "Token exchange", callback);
+    }
+
+    public static void refreshAccessToken(String refreshToken, String clientId, BlueskyCallback callback) {
+        String body = String.format(
+            "grant_type=refresh_token&client_id=%s&refresh_token=%s",
+            clientId, refreshToken
+        );
+        postToken(body, "Refresh", "Token refresh", callback);
+    }
+
+    /**
+     * {@link #refreshAccessToken(String, String, BlueskyCallback)} as a future, for {@link TokenManager}.
+     * An invalid_grant answer fails it with {@link TokenManager.RefreshRejectedException}.
+     */
+    public static CompletableFuture<TokenSet> refreshAccessToken(String refreshToken, String clientId) {
+        String body = String.format(
+            "grant_type=refresh_token&client_id=%s&refresh_token=%s",
+            clientId, refreshToken
+        );
+        return postTokenAsync(body, "Refresh").thenApply(response -> {
+            if (response.statusCode() == 200) {
+                try {
+                    return parseTokenResponse(response.body());
+                } catch (Exception ex) {
+                    throw new IllegalStateException("Error parsing token response: " + ex.getMessage(), ex);
+                }
+            }
+            String message = "Token refresh failed: " + response.body();
+            // only invalid_grant means the refresh token itself is dead; a 401 can be a DPoP or
+            // client-auth problem, which TokenManager's normal retry may get past
+            if (response.body().contains("invalid_grant")) {
+                throw new TokenManager.RefreshRejectedException(message);
+            }
+            throw new IllegalStateException(message);
+        });
+    }
+
+    /**
+     * Renews an app-password session (com.atproto.server.refreshSession) with its refreshJwt.
+     * A 400 or 401 (expired or revoked refreshJwt) fails it with {@link TokenManager.RefreshRejectedException}.
+     */
+    public static CompletableFuture<TokenSet> refreshSession(String refreshJwt) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("https://bsky.social/xrpc/com.atproto.server.refreshSession"))
+                .header("Authorization", "Bearer " + refreshJwt)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .timeout(HttpTransport.requestTimeout())
+                .build();
+        return HttpTransport.client().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 400 || response.statusCode() == 401) {
+                        throw new TokenManager.RefreshRejectedException("Session refresh failed: " + response.body());
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Session refresh failed: " + response.body());
+                    }
+                    JSONObject json = new JSONObject(response.body());
+                    String accessJwt = json.getString("accessJwt");
+                    return new TokenSet(accessJwt, json.optString("refreshJwt", null),
+                            secondsUntilExpiry(accessJwt), json.optString("did", null));
+                });
+    }
+
+    /** Seconds until a JWT's exp claim, or 0 when it has none or cannot be read. */
+    public static long secondsUntilExpiry(String jwt) {
         try {
-            final String tokenUrl = "https://bsky.social/oauth/token";
-            String body = String.format(
-                "grant_type=authorization_code&client_id=%s&redirect_uri=%s&code=%s&code_verifier=%s",
-                clientId, redirectUri, code, codeVerifier
-            );
-
-            HttpClient client = HttpClient.newHttpClient();
-
-            // First attempt
-            String dpop1 = DPoPUtil.buildDPoP("POST", tokenUrl, null);
-            HttpRequest firstRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(tokenUrl))
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .header("DPoP", dpop1)
-                    .POST(HttpRequest.BodyPublishers.ofString(body))
-                    .build();
-
-            client.sendAsync(firstRequest, HttpResponse.BodyHandlers.ofString())
-                    .thenCompose(resp -> {
-                        System.out.println("[Token#1] " + resp.statusCode());
-                        System.out.println("[Token#1] headers=" + resp.headers().map());
-                        System.out.println("[Token#1] body=" + resp.body());
-
-                        boolean is401 = resp.statusCode() == 401;
-                        boolean isNonce400 = resp.statusCode() == 400 && resp.body() != null && resp.body().contains("\"use_dpop_nonce\"");
-                        if (is401 || isNonce400) {
-                            String nonce = resp.headers().firstValue("DPoP-Nonce")
-                                    .orElse(resp.headers().firstValue("dpop-nonce").orElse(""));
-                            if (!nonce.isEmpty()) {
-                                String dpop2 = DPoPUtil.buildDPoP("POST", tokenUrl, nonce);
-                                HttpRequest retryRequest = HttpRequest.newBuilder()
-                                        .uri(URI.create(tokenUrl))
-                                        .header("Content-Type", "application/x-www-form-urlencoded")
-                                        .header("DPoP", dpop2)
-                                        .POST(HttpRequest.BodyPublishers.ofString(body))
-                                        .build();
-                                return client.sendAsync(retryRequest, HttpResponse.BodyHandlers.ofString())
-                                        .thenApply(r -> {
-                                            System.out.println("[Token#2] " + r.statusCode());
-                                            System.out.println("[Token#2] headers=" + r.headers().map());
-                                            System.out.println("[Token#2] body=" + r.body());
-                                            return r;
-                                        });
-                            }
-                        }
-                        return java.util.concurrent.CompletableFuture.completedFuture(resp);
-                    })
-                    .thenAccept(response -> {
-                        if (response.statusCode() == 200) {
-                            try {
-                                TokenSet tokenSet = parseTokenResponse(response.body());
-                                callback.onSuccess(tokenSet);
-                            } catch (Exception ex) {
-                                callback.onError("Error parsing token response: " + ex.getMessage());
-                            }
-                        } else {
-                            callback.onError("Token exchange failed: " + response.body());
-                        }
-                    })
-                    .exceptionally(e -> {
-                        callback.onError("Token exchange error: " + e.getMessage());
-                        return null;
-                    });
+            String[] parts = jwt.split("\\.");
+            JSONObject claims = new JSONObject(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+            long exp = claims.optLong("exp", 0);
+            return exp == 0 ? 0 : Math.max(1, exp - Instant.now().getEpochSecond());
         } catch (Exception e) {
-            callback.onError(e.getMessage());
+            return 0;
         }
     }
 
-    public static void refreshAccessToken(String refreshToken, String clientId, BlueskyCallback callback) {
-        try {
-            final String tokenUrl = "https://bsky.social/oauth/token";
-            String body = String.format(
-                "grant_type=refresh_token&client_id=%s&refresh_token=%s",
-                clientId, refreshToken
-            );
-
-            HttpClient client = HttpClient.newHttpClient();
-
-            // First attempt
-            String dpop1 = DPoPUtil.buildDPoP("POST", tokenUrl, null);
-            HttpRequest firstRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(tokenUrl))
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .header("DPoP", dpop1)
-                    .POST(HttpRequest.BodyPublishers.ofString(body))
-                    .build();
-
-            client.sendAsync(firstRequest, HttpResponse.BodyHandlers.ofString())
-                    .thenCompose(resp -> {
-                        System.out.println("[Refresh#1] " + resp.statusCode());
-                        System.out.println("[Refresh#1] headers=" + resp.headers().map());
-                        System.out.println("[Refresh#1] body=" + resp.body());
-
-                        boolean is401 = resp.statusCode() == 401;
-                        boolean isNonce400 = resp.statusCode() == 400 && resp.body() != null && resp.body().contains("\"use_dpop_nonce\"");
-                        if (is401 || isNonce400) {
-                            String nonce = resp.headers().firstValue("DPoP-Nonce")
-                                    .orElse(resp.headers().firstValue("dpop-nonce").orElse(""));
-                            if (!nonce.isEmpty()) {
-                                String dpop2 = DPoPUtil.buildDPoP("POST", tokenUrl, nonce);
-                                HttpRequest retryRequest = HttpRequest.newBuilder()
-                                        .uri(URI.create(tokenUrl))
-                                        .header("Content-Type", "application/x-www-form-urlencoded")
-                                        .header("DPoP", dpop2)
-                                        .POST(HttpRequest.BodyPublishers.ofString(body))
-                                        .build();
-                                return client.sendAsync(retryRequest, HttpResponse.BodyHandlers.ofString())
-                                        .thenApply(r -> {
-                                            System.out.println("[Refresh#2] " + r.statusCode());
-                                            System.out.println("[Refresh#2] headers=" + r.headers().map());
-                                            System.out.println("[Refresh#2] body=" + r.body());
-                                            return r;
-                                        });
-                            }
+    // POSTs a grant to the token endpoint; DPoPSession supplies the nonce from earlier calls
+    private static void postToken(String body, String tag, String what, BlueskyCallback callback) {
+        postTokenAsync(body, tag)
+                .thenAccept(response -> {
+                    if (response.statusCode() == 200) {
+                        try {
+                            TokenSet tokenSet = parseTokenResponse(response.body());
+                            callback.onSuccess(tokenSet);
+                        } catch (Exception ex) {
+                            callback.onError("Error parsing token response: " + ex.getMessage());
                         }
-                        return java.util.concurrent.CompletableFuture.completedFuture(resp);
-                    })
-                    .thenAccept(response -> {
-                        if (response.statusCode() == 200) {
-                            try {
-                                TokenSet tokenSet = parseTokenResponse(response.body());
-                                callback.onSuccess(tokenSet);
-                            } catch (Exception ex) {
-                                callback.onError("Error parsing token response: " + ex.getMessage());
-                            }
-                        } else {
-                            callback.onError("Token refresh failed: " + response.body());
-                        }
-                    })
-                    .exceptionally(e -> {
-                        callback.onError("Token refresh error: " + e.getMessage());
-                        return null;
+                    } else {
+                        callback.onError(what + " failed: " + response.body());
+                    }
+                })
+                .exceptionally(e -> {
+                    callback.onError(what + " error: " + e.getMessage());
+                    return null;
+                });
+    }
+
+    private static CompletableFuture<HttpResponse<String>> postTokenAsync(String body, String tag) {
+        try {
+            HttpClient client = HttpTransport.client();
+            return DPoPSession.shared().sendAsync(client, "POST", TOKEN_URL, dpop -> HttpRequest.newBuilder()
+                            .uri(URI.create(TOKEN_URL))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .header("DPoP", dpop)
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .timeout(HttpTransport.requestTimeout())
+                            .build())
+                    .thenApply(response -> {
+                        System.out.println("[" + tag + "] " + response.statusCode());
+                        return response;
                     });
         } catch (Exception e) {
-            callback.onError(e.getMessage());
+            return CompletableFuture.failedFuture(e);
         }
     }
 
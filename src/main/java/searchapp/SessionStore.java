@@ -0,0 +1,112 @@
+package searchapp;
+
+import app.net.SecureStore;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Logged-in accounts saved between launches in the encrypted {@link SecureStore}, so the
+ * app can open straight on the home page. Nothing is checked against the servers when
+ * loading; expired Bluesky tokens are refreshed by {@link TokenManager} and a revoked
+ * Mastodon token is found by a background check after start.
+ *
+ * The DPoP key the Bluesky tokens are bound to is kept in the same store by
+ * {@link DPoPProofFactory}. Turn saving off with searchapp.sessions.persist=false.
+ */
+public final class SessionStore {
+
+    private static final boolean PERSIST = Boolean.parseBoolean(System.getProperty("searchapp.sessions.persist", "true"));
+    private static final String NAME = "sessions";
+
+    /**
+     * @param oauth true for an OAuth (DPoP-bound) session, false for an app-password session
+     * @param expiresAt null when unknown
+     */
+    public record BlueskySession(String accessToken, String refreshToken, Instant expiresAt, boolean oauth, String handle) {}
+
+    public record MastodonSession(String instance, String accessToken, String acct, String displayName) {}
+
+    /** What was saved; either session may be null. {@code platform} is the last one logged into. */
+    public record Saved(BlueskySession bluesky, MastodonSession mastodon, String platform) {
+        public boolean isEmpty() {
+            return bluesky == null && mastodon == null;
+        }
+    }
+
+    private SessionStore() {}
+
+    public static synchronized Saved load() {
+        JSONObject doc = PERSIST ? SecureStore.shared().read(NAME) : null;
+        if (doc == null) return new Saved(null, null, null);
+        BlueskySession bluesky = null;
+        JSONObject b = doc.optJSONObject("bluesky");
+        if (b != null && b.has("accessToken")) {
+            bluesky = new BlueskySession(b.getString("accessToken"), b.optString("refreshToken", null),
+                    b.has("expiresAt") ? Instant.ofEpochSecond(b.getLong("expiresAt")) : null,
+                    b.optBoolean("oauth"), b.optString("handle", ""));
+        }
+        MastodonSession mastodon = null;
+        JSONObject m = doc.optJSONObject("mastodon");
+        if (m != null && m.has("accessToken") && m.has("instance")) {
+            mastodon = new MastodonSession(m.getString("instance"), m.getString("accessToken"),
+                    m.optString("acct", null), m.optString("displayName", null));
+        }
+        return new Saved(bluesky, mastodon, doc.optString("platform", null));
+    }
+
+    public static synchronized void saveBluesky(BlueskySession session) {
+        update(doc -> {
+            JSONObject b = new JSONObject()
+                    .put("accessToken", session.accessToken())
+                    .putOpt("refreshToken", session.refreshToken())
+                    .put("oauth", session.oauth())
+                    .putOpt("handle", session.handle());
+            if (session.expiresAt() != null) b.put("expiresAt", session.expiresAt().getEpochSecond());
+            doc.put("bluesky", b).put("platform", "bluesky");
+        });
+    }
+
+    /** Stores refreshed tokens for the saved Bluesky session. */
+    public static synchronized void updateBlueskyTokens(TokenManager.Tokens tokens) {
+        update(doc -> {
+            JSONObject b = doc.optJSONObject("bluesky");
+            if (b == null) return;
+            b.put("accessToken", tokens.accessToken()).putOpt("refreshToken", tokens.refreshToken());
+            if (tokens.expiresAt() != null) b.put("expiresAt", tokens.expiresAt().getEpochSecond());
+            else b.remove("expiresAt");
+        });
+    }
+
+    public static synchronized void saveMastodon(MastodonSession session) {
+        update(doc -> doc.put("mastodon", new JSONObject()
+                .put("instance", session.instance())
+                .put("accessToken", session.accessToken())
+                .putOpt("acct", session.acct())
+                .putOpt("displayName", session.displayName()))
+                .put("platform", "mastodon"));
+    }
+
+    public static synchronized void clearMastodon() {
+        update(doc -> doc.remove("mastodon"));
+    }
+
+    public static synchronized void clearBluesky() {
+        update(doc -> doc.remove("bluesky"));
+    }
+
+    private static void update(Consumer<JSONObject> edit) {
+        if (!PERSIST) return;
+        SecureStore store = SecureStore.shared();
+        JSONObject doc = store.read(NAME);
+        if (doc == null) doc = new JSONObject();
+        edit.accept(doc);
+        try {
+            store.write(NAME, doc);
+        } catch (IOException e) {
+            System.err.println("[SessionStore] could not save sessions: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package searchapp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every logged-in account's access token current. Each account's expiry is tracked
+ * and its token refreshed on a background scheduler before it runs out
+ * (searchapp.tokens.refreshMarginSeconds before expiry, default 120, or at 80% of the
+ * lifetime for short-lived tokens), so searches pick up a valid token instead of failing
+ * and retrying.
+ *
+ * Refreshes are single-flight per account: a scheduled refresh and a caller that finds the
+ * token already expired share one request. This matters for Bluesky, whose refresh tokens
+ * are single use. A failed refresh is retried every {@link #RETRY_DELAY} until the token expires,
+ * unless the refresher reports a {@link RefreshRejectedException}: then the refresh token is
+ * dead, nothing is retried and the {@link #onRejected} listeners are told.
+ */
+public final class TokenManager {
+
+    public static final String BLUESKY = "bluesky";
+
+    private static final Duration REFRESH_MARGIN =
+            Duration.ofSeconds(Long.getLong("searchapp.tokens.refreshMarginSeconds", 120));
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private static final TokenManager SHARED = new TokenManager();
+
+    /** Fetches new tokens for an account, given its current ones. */
+    public interface Refresher {
+        CompletableFuture<Tokens> refresh(Tokens current);
+    }
+
+    /** The server refused the refresh token (revoked, expired, already used); retrying cannot help. */
+    public static final class RefreshRejectedException extends RuntimeException {
+        public RefreshRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @param refreshToken may be null when the account cannot be refreshed
+     * @param expiresAt null for tokens that do not expire
+     */
+    public record Tokens(String accessToken, String refreshToken, Instant expiresAt) {
+        public static Tokens of(BlueskyUtil.TokenSet set) {
+            return new Tokens(set.accessToken, set.refreshToken,
+                    set.expiresIn > 0 ? Instant.now().plusSeconds(set.expiresIn) : null);
+        }
+
+        boolean isExpired() {
+            return expiresAt != null && !Instant.now().isBefore(expiresAt);
+        }
+    }
+
+    private static final class Account {
+        final Refresher refresher;
+        volatile Tokens tokens;
+        // guarded by this
+        CompletableFuture<Tokens> inFlight;
+        ScheduledFuture<?> timer;
+
+        Account(Tokens tokens, Refresher refresher) {
+            this.tokens = tokens;
+            this.refresher = refresher;
+        }
+    }
+
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, Tokens>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> rejectedListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "token-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static TokenManager shared() {
+        return SHARED;
+    }
+
+    public static String mastodonKey(String instance) {
+        return "mastodon@" + instance;
+    }
+
+    /**
+     * Starts tracking an account, replacing what was tracked under {@code key}.
+     *
+     * @param refresher null for tokens that cannot be refreshed; ignored without a refresh token
+     */
+    public void track(String key, Tokens tokens, Refresher refresher) {
+        Account account = new Account(tokens, tokens.refreshToken() == null ? null : refresher);
+        Account old = accounts.put(key, account);
+        if (old != null) cancelTimer(old);
+        schedule(key, account, refreshDelay(tokens));
+    }
+
+    /** Called with the account key and its new tokens after every successful refresh. */
+    public void onRefresh(BiConsumer<String, Tokens> listener) {
+        listeners.add(listener);
+    }
+
+    /** Called with the account key when its refresh token was rejected; the user has to log in again. */
+    public void onRejected(Consumer<String> listener) {
+        rejectedListeners.add(listener);
+    }
+
+    public void forget(String key) {
+        Account old = accounts.remove(key);
+        if (old != null) cancelTimer(old);
+    }
+
+    /**
+     * The account's access token once it is usable: completes at once with the current
+     * token, or with {@code fallback} when the account is not tracked, but joins the refresh
+     * of a token found already expired. Never completes exceptionally; if the refresh fails
+     * the expired token is returned and the request it is used for reports the error.
+     * Wait for it off the UI thread.
+     */
+    public CompletableFuture<String> freshAccessToken(String key, String fallback) {
+        Account account = accounts.get(key);
+        if (account == null) return CompletableFuture.completedFuture(fallback);
+        Tokens tokens = account.tokens;
+        if (!tokens.isExpired() || account.refresher == null) return CompletableFuture.completedFuture(tokens.accessToken());
+        return refresh(key, account)
+                .thenApply(Tokens::accessToken)
+                .exceptionally(e -> tokens.accessToken());
+    }
+
+    /** Refreshes now, or joins a refresh already under way. */
+    public CompletableFuture<Tokens> refresh(String key) {
+        Account account = accounts.get(key);
+        if (account == null) return CompletableFuture.failedFuture(new IllegalStateException("Not tracked: " + key));
+        return refresh(key, account);
+    }
+
+    private CompletableFuture<Tokens> refresh(String key, Account account) {
+        if (account.refresher == null) return CompletableFuture.completedFuture(account.tokens);
+        CompletableFuture<Tokens> started;
+        synchronized (account) {
+            if (account.inFlight != null) return account.inFlight;
+            started = new CompletableFuture<>();
+            account.inFlight = started;
+        }
+        Tokens current = account.tokens;
+        CompletableFuture<Tokens> request;
+        try {
+            request = account.refresher.refresh(current);
+        } catch (RuntimeException e) {
+            // a refresher that throws instead of failing its future must not leave inFlight set
+            request = CompletableFuture.failedFuture(e);
+        }
+        request.whenComplete((fresh, error) -> {
+            synchronized (account) {
+                account.inFlight = null;
+            }
+            if (error != null || fresh == null || fresh.accessToken() == null) {
+                System.err.println("[Tokens] " + key + ": refresh failed: " + error);
+                if (rejected(error)) {
+                    if (accounts.get(key) == account) {
+                        for (Consumer<String> l : rejectedListeners) l.accept(key);
+                    }
+                } else if (!current.isExpired() && accounts.get(key) == account) {
+                    schedule(key, account, RETRY_DELAY);
+                }
+                started.completeExceptionally(error != null ? error : new IllegalStateException("No access token"));
+                return;
+            }
+            // refresh tokens may not be rotated; keep the old one then
+            Tokens next = fresh.refreshToken() == null
+                    ? new Tokens(fresh.accessToken(), current.refreshToken(), fresh.expiresAt())
+                    : fresh;
+            account.tokens = next;
+            System.out.println("[Tokens] " + key + ": refreshed, expires " + next.expiresAt());
+            if (accounts.get(key) == account) {
+                schedule(key, account, refreshDelay(next));
+                for (BiConsumer<String, Tokens> l : listeners) l.accept(key, next);
+            }
+            started.complete(next);
+        });
+        return started;
+    }
+
+    private static boolean rejected(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof RefreshRejectedException) return true;
+        }
+        return false;
+    }
+
+    private void schedule(String key, Account account, Duration delay) {
+        if (delay == null || account.refresher == null) return;
+        synchronized (account) {
+            if (account.timer != null) account.timer.cancel(false);
+            account.timer = scheduler.schedule(() -> refresh(key, account), delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void cancelTimer(Account account) {
+        synchronized (account) {
+            if (account.timer != null) account.timer.cancel(false);
+        }
+    }
+
+    // null when the token never expires
+    private static Duration refreshDelay(Tokens tokens) {
+        if (tokens.expiresAt() == null) return null;
+        Duration left = Duration.between(Instant.now(), tokens.expiresAt());
+        Duration early = left.dividedBy(5);
+        Duration margin = early.compareTo(REFRESH_MARGIN) > 0 ? REFRESH_MARGIN : early;
+        Duration delay = left.minus(margin);
+        return delay.isNegative() ? Duration.ZERO : delay;
+    }
+}
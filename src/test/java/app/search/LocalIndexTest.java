@@ -0,0 +1,78 @@
+package app.search;
+
+import app.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalIndexTest {
+
+    private static Post post(String uri, String name, String text, Integer likes, Instant createdAt) {
+        return new Post("bluesky", uri, name, "@alice.bsky.social", null, createdAt, text,
+                null, null, likes, null, null);
+    }
+
+    private static List<String> uris(List<Post> posts) {
+        return posts.stream().map(Post::uri).toList();
+    }
+
+    @Test
+    void matchesTermsPrefixesAndPhrases() {
+        LocalIndex index = new LocalIndex(100);
+        Instant t = Instant.parse("2024-05-01T00:00:00Z");
+        index.addAll(List.of(
+                post("at://1", "Alice", "virtual threads in Java", 1, t),
+                post("at://2", "Alice", "threads of virtual yarn", 1, t.plusSeconds(60))));
+
+        assertEquals(List.of("at://2", "at://1"), uris(index.search(LocalQuery.parse("threads"), 10)));
+        assertEquals(List.of("at://1"), uris(index.search(LocalQuery.parse("\"virtual threads\""), 10)));
+        assertEquals(List.of("at://2"), uris(index.search(LocalQuery.parse("ya*"), 10)));
+        assertEquals(List.of("at://2", "at://1"), uris(index.search(LocalQuery.parse("alice"), 10)));
+    }
+
+    @Test
+    void readdingAPostKeepsOneCopyWithCurrentCounts() {
+        LocalIndex index = new LocalIndex(100);
+        Instant t = Instant.parse("2024-05-01T00:00:00Z");
+        index.addAll(List.of(post("at://1", "Alice", "hello world", 1, t)));
+        index.addAll(List.of(post("at://1", "Alice", "hello world", 5, t)));
+
+        assertEquals(1, index.size());
+        List<Post> hits = index.search(LocalQuery.parse("hello"), 10);
+        assertEquals(1, hits.size());
+        assertEquals(5, hits.get(0).likeCount());
+    }
+
+    @Test
+    void readdingAnEditedPostReindexesIt() {
+        LocalIndex index = new LocalIndex(100);
+        Instant t = Instant.parse("2024-05-01T00:00:00Z");
+        index.addAll(List.of(
+                post("at://1", "Alice", "first draft", 1, t),
+                post("at://2", "Alice", "another draft", 1, t.plusSeconds(60))));
+        index.addAll(List.of(post("at://1", "Alicia", "final version", 1, t)));
+
+        assertEquals(List.of("at://2"), uris(index.search(LocalQuery.parse("draft"), 10)));
+        assertTrue(index.search(LocalQuery.parse("first"), 10).isEmpty());
+        assertEquals(List.of("at://1"), uris(index.search(LocalQuery.parse("final"), 10)));
+        assertEquals(List.of("at://1"), uris(index.search(LocalQuery.parse("alicia"), 10)));
+        assertTrue(index.search(LocalQuery.parse("alice"), 10).stream().noneMatch(p -> p.uri().equals("at://1")));
+    }
+
+    @Test
+    void dropsOldestPostsPastTheCap() {
+        LocalIndex index = new LocalIndex(2);
+        Instant t = Instant.parse("2024-05-01T00:00:00Z");
+        index.addAll(List.of(
+                post("at://1", "Alice", "news one", 1, t),
+                post("at://2", "Alice", "news two", 1, t.plusSeconds(1)),
+                post("at://3", "Alice", "news three", 1, t.plusSeconds(2))));
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("at://3", "at://2"), uris(index.search(LocalQuery.parse("news"), 10)));
+    }
+}
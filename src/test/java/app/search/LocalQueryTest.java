@@ -0,0 +1,46 @@
+package app.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalQueryTest {
+
+    @Test
+    void splitsTermsPrefixesAndPhrases() {
+        LocalQuery q = LocalQuery.parse("Java stream* \"virtual threads\" \"single\"");
+        assertEquals(List.of("java", "single"), q.terms());
+        assertEquals(List.of("stream"), q.prefixes());
+        assertEquals(List.of(List.of("virtual", "threads")), q.phrases());
+    }
+
+    @Test
+    void readsFilters() {
+        LocalQuery q = LocalQuery.parse("from:@Alice platform:bluesky since:2024-05-01 until:2024-06-01 news");
+        assertEquals("alice", q.author());
+        assertEquals(Set.of("bluesky"), q.platforms());
+        assertEquals(LocalDate.of(2024, 5, 1).atStartOfDay(ZoneId.systemDefault()).toInstant(), q.since());
+        assertEquals(LocalDate.of(2024, 6, 1).atStartOfDay(ZoneId.systemDefault()).toInstant(), q.until());
+        assertEquals(List.of("news"), q.terms());
+    }
+
+    @Test
+    void ignoresBadDatesAndUnclosedQuotes() {
+        LocalQuery q = LocalQuery.parse("since:yesterday \"open quote");
+        assertNull(q.since());
+        assertEquals(List.of(List.of("open", "quote")), q.phrases());
+    }
+
+    @Test
+    void filtersAloneAreEmpty() {
+        assertTrue(LocalQuery.parse("from:alice platform:mastodon").isEmpty());
+        assertTrue(LocalQuery.parse(null).isEmpty());
+    }
+}